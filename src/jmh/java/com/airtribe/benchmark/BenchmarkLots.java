@@ -0,0 +1,139 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingstrategy.ParkingStrategy;
+import com.airtribe.payment.PaymentProcessor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds parking lots of a given size and occupancy for the JMH benchmarks
+ * and the standalone harnesses.
+ */
+final class BenchmarkLots {
+
+    static final int SPOTS_PER_FLOOR = 10_000;
+
+    private static final Vehicle FILLER = new Vehicle("JMH-FILLER", VehicleType.CAR);
+
+    private BenchmarkLots() {
+    }
+
+    /**
+     * Creates a lot with {@code lotSize} spots split into floors of at most
+     * SPOTS_PER_FLOOR, spot types assigned round-robin, and a random
+     * {@code occupancy} fraction of the spots already taken.
+     */
+    static ParkingLot build(int lotSize, double occupancy) {
+        ParkingLot lot = new ParkingLot(new NearestAvailableSpotStrategy(), amount -> true,
+                new StandardCostComputationStrategy());
+        List<ParkingSpot> spots = new ArrayList<>(lotSize);
+        SpotType[] types = SpotType.values();
+
+        int floorCount = (lotSize + SPOTS_PER_FLOOR - 1) / SPOTS_PER_FLOOR;
+        for (int f = 0; f < floorCount; f++) {
+            ParkingFloor floor = new ParkingFloor("F" + f);
+            int floorSize = Math.min(SPOTS_PER_FLOOR, lotSize - f * SPOTS_PER_FLOOR);
+            for (int i = 0; i < floorSize; i++) {
+                ParkingSpot spot = new ParkingSpot("F" + f + "-S" + i, types[i % types.length]);
+                floor.addSpot(spot);
+                spots.add(spot);
+            }
+            lot.addFloor(floor);
+        }
+
+        occupy(spots, occupancy);
+        return lot;
+    }
+
+    /**
+     * Creates an empty lot of {@code floors} floors of {@code spotsPerFloor}
+     * spots each, with spot types assigned round-robin from {@code types}.
+     * Floors are F0, F1, ... and spots F0-S0, F0-S1, ...
+     */
+    static ParkingLot build(ParkingStrategy strategy, PaymentProcessor payment, int floors, int spotsPerFloor,
+                            SpotType... types) {
+        ParkingLot lot = new ParkingLot(strategy, payment, new StandardCostComputationStrategy());
+        for (int f = 0; f < floors; f++) {
+            ParkingFloor floor = new ParkingFloor("F" + f);
+            for (int s = 0; s < spotsPerFloor; s++) {
+                floor.addSpot(new ParkingSpot("F" + f + "-S" + s, types[s % types.length]));
+            }
+            lot.addFloor(floor);
+        }
+        return lot;
+    }
+
+    /**
+     * Creates an empty lot of {@code floors} floors, each laid out as
+     * consecutive blocks of spots in the map's iteration order, e.g. all
+     * SMALL spots, then all MEDIUM, then all LARGE for an EnumMap.
+     */
+    static ParkingLot build(ParkingStrategy strategy, PaymentProcessor payment, int floors,
+                            Map<SpotType, Integer> spotsPerType) {
+        ParkingLot lot = new ParkingLot(strategy, payment, new StandardCostComputationStrategy());
+        for (int f = 0; f < floors; f++) {
+            ParkingFloor floor = new ParkingFloor("F" + f);
+            int s = 0;
+            for (Map.Entry<SpotType, Integer> block : spotsPerType.entrySet()) {
+                for (int i = 0; i < block.getValue(); i++) {
+                    floor.addSpot(new ParkingSpot("F" + f + "-S" + s++, block.getKey()));
+                }
+            }
+            lot.addFloor(floor);
+        }
+        return lot;
+    }
+
+    /**
+     * Number of SPOTS_PER_FLOOR floors needed to hold {@code spots} spots.
+     */
+    static int floorsFor(int spots) {
+        return (spots + SPOTS_PER_FLOOR - 1) / SPOTS_PER_FLOOR;
+    }
+
+    /**
+     * Creates a single floor with {@code floorSize} spots and the given occupancy.
+     */
+    static ParkingFloor buildFloor(int floorSize, double occupancy) {
+        ParkingFloor floor = new ParkingFloor("F0");
+        List<ParkingSpot> spots = new ArrayList<>(floorSize);
+        SpotType[] types = SpotType.values();
+        for (int i = 0; i < floorSize; i++) {
+            ParkingSpot spot = new ParkingSpot("F0-S" + i, types[i % types.length]);
+            floor.addSpot(spot);
+            spots.add(spot);
+        }
+        occupy(spots, occupancy);
+        return floor;
+    }
+
+    /**
+     * Display panels print on every entry and exit; drop that output so the
+     * benchmarks measure the parking logic rather than console I/O.
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    private static void occupy(List<ParkingSpot> spots, double occupancy) {
+        Collections.shuffle(spots, new Random(42));
+        int toOccupy = (int) (spots.size() * occupancy);
+        for (int i = 0; i < toOccupy; i++) {
+            spots.get(i).tryClaim(FILLER);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.airtribe.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks once per thread count so contention shows up
+ * alongside lot size and occupancy. Any regular JMH command-line options
+ * (benchmark regex, -p lotSize=..., -prof gc, ...) are passed through.
+ * Run with: java -cp target/benchmarks.jar com.airtribe.benchmark.BenchmarkRunner [jmh options]
+ */
+public class BenchmarkRunner {
+
+    private static final int[] THREAD_COUNTS = {1, 8, 64};
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        for (int threads : THREAD_COUNTS) {
+            System.out.println("=== " + threads + " thread(s) ===");
+            new Runner(new OptionsBuilder().parent(commandLine).threads(threads).build()).run();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.displaypanel.DisplayRenderer;
+import com.airtribe.metrics.LatencySummary;
+import com.airtribe.metrics.ParkingMetrics;
+import com.airtribe.parkingstrategy.BestFitSpotStrategy;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingstrategy.ParkingStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Simulates a mixed stream of motorcycles, cars and trucks arriving at a lot
+ * while parked vehicles leave at random, at several levels of offered load,
+ * and compares NearestAvailableSpotStrategy with BestFitSpotStrategy: the
+ * share of arrivals turned away for lack of a spot (overall and per vehicle
+ * type) and the cost of a lookup (latency and spots scanned, from the lot's
+ * metrics). Both strategies see the same arrivals and departures.
+ * Run with: java com.airtribe.benchmark.BestFitSimulation [arrivals] [floors]
+ */
+public class BestFitSimulation {
+
+    private static final int SMALL_PER_FLOOR = 200;
+    private static final int MEDIUM_PER_FLOOR = 600;
+    private static final int LARGE_PER_FLOOR = 100;
+    private static final Map<SpotType, Integer> FLOOR_LAYOUT = new EnumMap<>(Map.of(
+            SpotType.SMALL, SMALL_PER_FLOOR, SpotType.MEDIUM, MEDIUM_PER_FLOOR, SpotType.LARGE, LARGE_PER_FLOOR));
+    // Arrival mix: 20% motorcycles, 70% cars, 10% trucks
+    private static final double MOTORCYCLE_SHARE = 0.2;
+    private static final double CAR_SHARE = 0.7;
+    // Offered load: vehicles that would be parked if none were turned away, as a share of all spots
+    private static final double[] LOADS = {0.8, 0.95, 1.1};
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws InterruptedException {
+        int arrivals = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int floors = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int spots = floors * (SMALL_PER_FLOOR + MEDIUM_PER_FLOOR + LARGE_PER_FLOOR);
+
+        System.out.println("=== Best-Fit Simulation (" + arrivals + " arrivals, " + floors + " floors, "
+                + spots + " spots) ===\n");
+        System.out.printf("%-6s %-10s %10s %10s %10s %10s %12s %12s %10s%n", "load", "strategy", "rejected",
+                "moto", "car", "truck", "lookup p50", "lookup p99", "scanned");
+
+        PrintStream console = System.out;
+        // Warm-up run so neither strategy pays for JIT compilation in the table
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        run(NearestAvailableSpotStrategy::new, arrivals / 4, floors, LOADS[0]);
+        run(BestFitSpotStrategy::new, arrivals / 4, floors, LOADS[0]);
+        for (double load : LOADS) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            Result nearest = run(NearestAvailableSpotStrategy::new, arrivals, floors, load);
+            Result bestFit = run(BestFitSpotStrategy::new, arrivals, floors, load);
+            // Let the display thread drain into the muted stream before the table resumes
+            DisplayRenderer.getDefault().flush();
+            System.setOut(console);
+            nearest.print(load, "nearest");
+            bestFit.print(load, "best fit");
+        }
+    }
+
+    /**
+     * Each step one vehicle arrives and every parked vehicle leaves with
+     * probability 1/stay, so the lot settles at load * spots vehicles when
+     * nobody is turned away. The first spots arrivals fill the lot and are
+     * not counted.
+     */
+    private static Result run(Supplier<ParkingStrategy> strategy, int arrivals, int floors, double load) {
+        ParkingLot lot = BenchmarkLots.build(strategy.get(), amount -> true, floors, FLOOR_LAYOUT);
+        double stay = load * lot.getSpotCount();
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<ParkingTicket> parked = new ArrayList<>();
+        Map<VehicleType, int[]> offered = new EnumMap<>(VehicleType.class);
+        Map<VehicleType, int[]> rejected = new EnumMap<>(VehicleType.class);
+        int warmUp = lot.getSpotCount();
+
+        for (int step = 0; step < warmUp + arrivals; step++) {
+            double draw = random.nextDouble();
+            VehicleType type = draw < MOTORCYCLE_SHARE ? VehicleType.MOTORCYCLE
+                    : draw < MOTORCYCLE_SHARE + CAR_SHARE ? VehicleType.CAR : VehicleType.TRUCK;
+            ParkingTicket ticket = lot.getEntryPanel().parkVehicle(new Vehicle("SIM-" + step, type), lot);
+            if (ticket != null) {
+                parked.add(ticket);
+            }
+            if (step >= warmUp) {
+                offered.computeIfAbsent(type, t -> new int[1])[0]++;
+                if (ticket == null) {
+                    rejected.computeIfAbsent(type, t -> new int[1])[0]++;
+                }
+            }
+
+            // Departures: expected parked / stay per step
+            double leaving = parked.size() / stay;
+            int departures = (int) leaving + (random.nextDouble() < leaving - (int) leaving ? 1 : 0);
+            for (int d = 0; d < departures && !parked.isEmpty(); d++) {
+                int victim = random.nextInt(parked.size());
+                ParkingTicket leavingTicket = parked.get(victim);
+                parked.set(victim, parked.get(parked.size() - 1));
+                parked.remove(parked.size() - 1);
+                lot.getExitPanel().unparkVehicle(leavingTicket, lot);
+            }
+        }
+        return new Result(offered, rejected, lot.getMetrics());
+    }
+
+    private record Result(Map<VehicleType, int[]> offered, Map<VehicleType, int[]> rejected,
+                          ParkingMetrics metrics) {
+        double rejectedShare(VehicleType type) {
+            int total = offered.getOrDefault(type, new int[1])[0];
+            return total == 0 ? 0.0 : (double) rejected.getOrDefault(type, new int[1])[0] / total;
+        }
+
+        double rejectedShare() {
+            int total = 0;
+            int turnedAway = 0;
+            for (VehicleType type : offered.keySet()) {
+                total += offered.get(type)[0];
+                turnedAway += rejected.getOrDefault(type, new int[1])[0];
+            }
+            return total == 0 ? 0.0 : (double) turnedAway / total;
+        }
+
+        void print(double load, String name) {
+            LatencySummary lookups = metrics.getFindSpotLatency();
+            System.out.printf("%-6.2f %-10s %9.2f%% %9.2f%% %9.2f%% %9.2f%% %10.2fus %10.2fus %10.1f%n", load, name,
+                    100 * rejectedShare(), 100 * rejectedShare(VehicleType.MOTORCYCLE),
+                    100 * rejectedShare(VehicleType.CAR), 100 * rejectedShare(VehicleType.TRUCK),
+                    lookups.getP50Nanos() / 1e3, lookups.getP99Nanos() / 1e3, metrics.getSpotsScannedPerLookup());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.cluster.LocalShard;
+import com.airtribe.cluster.ParkingLotCluster;
+import com.airtribe.cluster.RemoteShard;
+import com.airtribe.cluster.ShardServer;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a ParkingLotCluster of lots in this JVM plus lots in child JVMs
+ * (ShardServer processes talking over loopback), parks vehicles across all
+ * of them from concurrent gates, routes every ticket back by its ID prefix,
+ * times parallel availability fan-out, and checks that every shard ends
+ * empty again.
+ * Run with: java com.airtribe.benchmark.ClusterBenchmark [processes] [localLots] [vehiclesPerLot] [gates]
+ */
+public class ClusterBenchmark {
+
+    private static final int FLOORS = 4;
+    private static final int SPOTS_PER_FLOOR = 1000;
+    private static final int AVAILABILITY_QUERIES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int processes = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int localLots = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        int vehiclesPerLot = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int gates = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+
+        System.out.println("=== Cluster Benchmark (" + processes + " processes, " + localLots + " local lots, "
+                + vehiclesPerLot + " vehicles per lot, " + gates + " gates) ===\n");
+
+        List<Process> children = new ArrayList<>();
+        PrintStream console = System.out;
+        try (ParkingLotCluster cluster = new ParkingLotCluster()) {
+            for (int i = 0; i < processes; i++) {
+                Process child = startShardProcess();
+                children.add(child);
+                cluster.addShard(new RemoteShard(awaitPort(child)));
+            }
+            for (int i = 0; i < localLots; i++) {
+                cluster.addShard(new LocalShard(ShardServer.buildLot(FLOORS, SPOTS_PER_FLOOR)));
+            }
+            long capacity = cluster.getAvailableSpotCount();
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+            int shards = cluster.getShardCount();
+            int vehicles = shards * vehiclesPerLot;
+            String[] ticketIds = new String[vehicles];
+            long start = System.nanoTime();
+            runGates(gates, vehicles, i -> {
+                ParkingTicket ticket = cluster.park(i % shards, new Vehicle("CL-" + i, VehicleType.CAR));
+                ticketIds[i] = ticket == null ? null : ticket.getTicketId();
+            });
+            double parkSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            AtomicInteger found = new AtomicInteger();
+            runGates(gates, vehicles, i -> {
+                if (ticketIds[i] != null && cluster.getTicket(ticketIds[i]) != null) {
+                    found.incrementAndGet();
+                }
+            });
+            double lookupSeconds = (System.nanoTime() - start) / 1e9;
+
+            long occupied = capacity - cluster.getAvailableSpotCount();
+            start = System.nanoTime();
+            for (int q = 0; q < AVAILABILITY_QUERIES; q++) {
+                cluster.getAvailableSpotCount(SpotType.MEDIUM);
+            }
+            double fanOutMicros = (System.nanoTime() - start) / 1e3 / AVAILABILITY_QUERIES;
+
+            start = System.nanoTime();
+            AtomicInteger exited = new AtomicInteger();
+            runGates(gates, vehicles, i -> {
+                if (ticketIds[i] != null && cluster.unpark(ticketIds[i])) {
+                    exited.incrementAndGet();
+                }
+            });
+            double unparkSeconds = (System.nanoTime() - start) / 1e9;
+            long remaining = capacity - cluster.getAvailableSpotCount();
+            System.setOut(console);
+
+            System.out.printf("%-34s %12d%n", "shards", shards);
+            System.out.printf("%-34s %12.0f%n", "parks/s", vehicles / parkSeconds);
+            System.out.printf("%-34s %12.0f%n", "routed lookups/s", vehicles / lookupSeconds);
+            System.out.printf("%-34s %12.0f%n", "routed exits/s", vehicles / unparkSeconds);
+            System.out.printf("%-34s %12.1f%n", "availability fan-out us", fanOutMicros);
+            System.out.printf("%-34s %12d%n", "tickets found by prefix", found.get());
+            System.out.printf("%-34s %12d%n", "vehicles exited", exited.get());
+
+            if (found.get() != vehicles || occupied != vehicles || exited.get() != vehicles || remaining != 0) {
+                throw new IllegalStateException("Expected " + vehicles + " tickets routed and exited, found "
+                        + found.get() + ", occupied " + occupied + ", exited " + exited.get()
+                        + ", left " + remaining);
+            }
+        } finally {
+            System.setOut(console);
+            for (Process child : children) {
+                child.destroy();
+            }
+        }
+    }
+
+    private interface GateWork {
+        void run(int vehicle);
+    }
+
+    private static void runGates(int gates, int vehicles, GateWork work) throws InterruptedException {
+        CountDownLatch completionLatch = new CountDownLatch(gates);
+        AtomicInteger next = new AtomicInteger();
+        for (int g = 0; g < gates; g++) {
+            Thread gate = new Thread(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < vehicles) {
+                    work.run(i);
+                }
+                completionLatch.countDown();
+            });
+            gate.start();
+        }
+        completionLatch.await();
+    }
+
+    /**
+     * Starts a ShardServer in a child JVM with this JVM's runtime and class path.
+     */
+    private static Process startShardProcess() throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ShardServer.class.getName(), "0", String.valueOf(FLOORS), String.valueOf(SPOTS_PER_FLOOR))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static int awaitPort(Process child) throws IOException {
+        BufferedReader out = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = out.readLine()) != null) {
+            if (line.startsWith("READY ")) {
+                return Integer.parseInt(line.substring("READY ".length()).trim());
+            }
+        }
+        throw new IllegalStateException("Shard process exited before it was ready");
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingstrategy.ParkingStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.ParkingTicketGenerator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a burst of concurrent arrivals at a lot with exactly one spot per
+ * vehicle and reports entry latency percentiles and rejections, comparing
+ * the old retry-with-sleep entry path against strategy-side claiming.
+ * Run with: java com.airtribe.benchmark.EntryBurstBenchmark [threads] [rounds]
+ */
+public class EntryBurstBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.println("=== Entry Burst Benchmark (" + threads + " threads, "
+                + threads + " spots, " + rounds + " rounds) ===\n");
+        System.out.printf("%-20s %10s %10s %10s %12s%n", "entry path", "p50 us", "p99 us", "max us", "rejected");
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Result before = run(threads, rounds, EntryBurstBenchmark::legacyParkVehicle);
+        Result after = run(threads, rounds, (vehicle, lot) -> lot.getEntryPanel().parkVehicle(vehicle, lot));
+        System.setOut(console);
+
+        before.print("retry + sleep");
+        after.print("claim in strategy");
+    }
+
+    private static Result run(int threads, int rounds, Entry entry) throws InterruptedException {
+        long[] latencies = new long[threads * rounds];
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int round = 0; round < rounds; round++) {
+            ParkingLot lot = BenchmarkLots.build(new NearestAvailableSpotStrategy(), amount -> true, 1, threads,
+                    SpotType.MEDIUM);
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch startLatch = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            int offset = round * threads;
+
+            for (int t = 0; t < threads; t++) {
+                int slot = offset + t;
+                Vehicle vehicle = new Vehicle("BURST-" + slot, VehicleType.CAR);
+                workers[t] = new Thread(() -> {
+                    ready.countDown();
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long start = System.nanoTime();
+                    ParkingTicket ticket = entry.park(vehicle, lot);
+                    latencies[slot] = System.nanoTime() - start;
+                    if (ticket == null) {
+                        rejected.incrementAndGet();
+                    }
+                });
+                workers[t].start();
+            }
+
+            ready.await();
+            startLatch.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        Arrays.sort(latencies);
+        return new Result(latencies, rejected.get());
+    }
+
+    private static final ParkingTicketGenerator LEGACY_GENERATOR = new ParkingTicketGenerator();
+    private static final ParkingStrategy LEGACY_STRATEGY = new NearestAvailableSpotStrategy();
+
+    /**
+     * The entry path EntryPanel.parkVehicle used before strategies claimed
+     * spots: find, try to park, sleep 10ms and retry at most 3 times.
+     */
+    private static ParkingTicket legacyParkVehicle(Vehicle vehicle, ParkingLot parkingLot) {
+        int maxRetries = 3;
+        int attempt = 0;
+        while (attempt < maxRetries) {
+            ParkingSpot spot = LEGACY_STRATEGY.findSpot(vehicle, parkingLot);
+            if (spot == null) {
+                return null;
+            }
+            if (spot.parkVehicle(vehicle)) {
+                ParkingTicket ticket = LEGACY_GENERATOR.generateTicket(vehicle, spot);
+                parkingLot.issueTicket(ticket);
+                return ticket;
+            }
+            attempt++;
+            System.out.println("Race condition detected for vehicle " + vehicle.getLicenseNumber()
+                    + ". Retrying... (Attempt " + attempt + "/" + maxRetries + ")");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return null;
+    }
+
+    private interface Entry {
+        ParkingTicket park(Vehicle vehicle, ParkingLot parkingLot);
+    }
+
+    private record Result(long[] sortedLatencies, int rejected) {
+        void print(String label) {
+            System.out.printf("%-20s %10.1f %10.1f %10.1f %12d%n", label,
+                    percentile(0.50) / 1_000.0, percentile(0.99) / 1_000.0,
+                    sortedLatencies[sortedLatencies.length - 1] / 1_000.0, rejected);
+        }
+
+        private long percentile(double p) {
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingticket.ParkingTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EntryPanel.parkVehicle and ExitPanel.unparkVehicle against lots of
+ * 100 to 1M spots at low, half and near-full occupancy.
+ * Occupancy is held steady: each entry is undone and each exit is preceded
+ * by a fresh entry outside the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryExitBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LotState {
+        @Param({"100", "10000", "1000000"})
+        int lotSize;
+
+        @Param({"0.01", "0.5", "0.99"})
+        double occupancy;
+
+        ParkingLot lot;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            BenchmarkLots.silenceConsole();
+            lot = BenchmarkLots.build(lotSize, occupancy);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class GateState {
+        private static final AtomicInteger GATES = new AtomicInteger();
+
+        final Vehicle vehicle = new Vehicle("JMH-" + GATES.incrementAndGet(), VehicleType.CAR);
+    }
+
+    @State(Scope.Thread)
+    public static class ExitGateState {
+        private static final AtomicInteger GATES = new AtomicInteger();
+
+        final Vehicle vehicle = new Vehicle("JMH-EXIT-" + GATES.incrementAndGet(), VehicleType.CAR);
+        ParkingTicket parked;
+
+        @Setup(Level.Invocation)
+        public void parkForExit(LotState state) {
+            parked = state.lot.getEntryPanel().parkVehicle(vehicle, state.lot);
+        }
+    }
+
+    @Benchmark
+    public ParkingTicket parkVehicle(LotState state, GateState gate) {
+        ParkingTicket ticket = state.lot.getEntryPanel().parkVehicle(gate.vehicle, state.lot);
+        // Undo the entry so every invocation sees the configured occupancy
+        if (ticket != null && state.lot.removeTicket(ticket.getTicketId()) != null) {
+            ticket.getSpot().release();
+        }
+        return ticket;
+    }
+
+    @Benchmark
+    public void unparkVehicle(LotState state, ExitGateState gate) {
+        state.lot.getExitPanel().unparkVehicle(gate.parked, state.lot);
+    }
+}
@@ -0,0 +1,119 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.panels.ExitPanel;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.payment.PaymentProcessor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures exit throughput at 1, 8 and 64 concurrent exit gates, comparing
+ * the old globally synchronized unparkVehicle against per-ticket claiming.
+ * Payments sleep to stand in for a card authorization round trip.
+ * Run with: java com.airtribe.benchmark.ExitContentionBenchmark [exits] [paymentMillis]
+ */
+public class ExitContentionBenchmark {
+
+    private static final int[] GATE_COUNTS = {1, 8, 64};
+
+    public static void main(String[] args) throws InterruptedException {
+        int exits = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        long paymentMillis = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        PaymentProcessor slowPayment = amount -> {
+            try {
+                Thread.sleep(paymentMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return true;
+        };
+
+        System.out.println("=== Exit Contention Benchmark (" + exits + " exits, "
+                + paymentMillis + "ms payment) ===\n");
+        System.out.printf("%-6s %22s %22s%n", "gates", "synchronized exits/s", "per-ticket exits/s");
+
+        PrintStream console = System.out;
+        for (int gates : GATE_COUNTS) {
+            ExitPanel perTicket = new ExitPanel(slowPayment, new StandardCostComputationStrategy());
+            ExitPanel globalLock = new ExitPanel(slowPayment, new StandardCostComputationStrategy()) {
+                // The exit path as it was: one monitor for every gate
+                @Override
+                public synchronized void unparkVehicle(ParkingTicket ticket, ParkingLot parkingLot) {
+                    super.unparkVehicle(ticket, parkingLot);
+                }
+            };
+
+            // Display panels print on every exit; keep that out of the measurement
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            double before = run(globalLock, exits, gates);
+            double after = run(perTicket, exits, gates);
+            System.setOut(console);
+
+            System.out.printf("%-6d %22.0f %22.0f%n", gates, before, after);
+        }
+    }
+
+    /**
+     * Parks {@code exits} vehicles, then lets {@code gates} threads drain them
+     * through the given exit panel. Returns exits per second.
+     */
+    private static double run(ExitPanel exitPanel, int exits, int gates) throws InterruptedException {
+        ParkingLot lot = BenchmarkLots.build(new NearestAvailableSpotStrategy(), amount -> true, 1, exits,
+                SpotType.MEDIUM);
+        lot.setExitPanel(exitPanel);
+
+        List<ParkingTicket> tickets = new ArrayList<>(exits);
+        for (int i = 0; i < exits; i++) {
+            tickets.add(lot.getEntryPanel().parkVehicle(new Vehicle("BENCH-" + i, VehicleType.CAR), lot));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(gates);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch completionLatch = new CountDownLatch(gates);
+        AtomicInteger next = new AtomicInteger();
+
+        for (int g = 0; g < gates; g++) {
+            executor.submit(() -> {
+                try {
+                    startLatch.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < exits) {
+                        lot.getExitPanel().unparkVehicle(tickets.get(i), lot);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    completionLatch.countDown();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        startLatch.countDown();
+        completionLatch.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        if (lot.getActiveTicketCount() != 0) {
+            throw new IllegalStateException(lot.getActiveTicketCount() + " tickets were not processed");
+        }
+        return exits / (elapsed / 1_000_000_000.0);
+    }
+}
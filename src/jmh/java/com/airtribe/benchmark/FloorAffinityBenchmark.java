@@ -0,0 +1,111 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingstrategy.FloorAffinitySpotStrategy;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingstrategy.ParkingStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Runs many concurrent gates against one lot, each parking vehicles and
+ * letting its oldest ones leave so the lot stays about half full, and
+ * compares NearestAvailableSpotStrategy with FloorAffinitySpotStrategy:
+ * throughput, and lost claims (a gate's CAS on a spot losing to another
+ * gate) per thousand entries.
+ * Run with: java com.airtribe.benchmark.FloorAffinityBenchmark [gates] [entriesPerGate] [floors]
+ */
+public class FloorAffinityBenchmark {
+
+    private static final int SPOTS_PER_FLOOR = 2048;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        int gates = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int entriesPerGate = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int floors = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        System.out.println("=== Floor Affinity Benchmark (" + gates + " gates, " + entriesPerGate
+                + " entries per gate, " + floors + " floors of " + SPOTS_PER_FLOOR + " spots) ===\n");
+        System.out.printf("%-20s %14s %16s %14s%n", "strategy", "entries/s", "lost claims", "lost per 1k");
+
+        PrintStream console = System.out;
+        for (int round = 0; round < ROUNDS; round++) {
+            // First round is warm-up; both strategies run in every round
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            Result nearest = run(NearestAvailableSpotStrategy::new, gates, entriesPerGate, floors);
+            Result affinity = run(FloorAffinitySpotStrategy::new, gates, entriesPerGate, floors);
+            System.setOut(console);
+            if (round > 0) {
+                nearest.print("nearest");
+                affinity.print("floor affinity");
+            }
+        }
+    }
+
+    private static Result run(Supplier<ParkingStrategy> strategy, int gates, int entriesPerGate, int floors)
+            throws InterruptedException {
+        ParkingLot lot = BenchmarkLots.build(strategy.get(), amount -> true, floors, SPOTS_PER_FLOOR,
+                SpotType.MEDIUM);
+        // Each gate keeps this many of its vehicles parked: about half the lot in total
+        int parkedPerGate = Math.max(1, floors * SPOTS_PER_FLOOR / 2 / gates);
+        CountDownLatch ready = new CountDownLatch(gates);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Thread[] workers = new Thread[gates];
+
+        for (int g = 0; g < gates; g++) {
+            int gate = g;
+            workers[g] = new Thread(() -> {
+                ArrayDeque<ParkingTicket> parked = new ArrayDeque<>(parkedPerGate + 1);
+                ready.countDown();
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < entriesPerGate; i++) {
+                    ParkingTicket ticket = lot.getEntryPanel().parkVehicle(
+                            new Vehicle("G" + gate + "-" + i, VehicleType.CAR), lot);
+                    if (ticket != null) {
+                        parked.add(ticket);
+                    }
+                    if (parked.size() > parkedPerGate) {
+                        lot.getExitPanel().unparkVehicle(parked.poll(), lot);
+                    }
+                }
+            });
+            workers[g].start();
+        }
+
+        ready.await();
+        long start = System.nanoTime();
+        startLatch.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long lostClaims = 0;
+        for (ParkingFloor floor : lot.getFloors()) {
+            lostClaims += floor.getLostClaimCount();
+        }
+        return new Result((long) gates * entriesPerGate, seconds, lostClaims);
+    }
+
+    private record Result(long entries, double seconds, long lostClaims) {
+        void print(String label) {
+            System.out.printf("%-20s %14.0f %16d %14.2f%n", label, entries / seconds, lostClaims,
+                    lostClaims * 1000.0 / entries);
+        }
+    }
+}
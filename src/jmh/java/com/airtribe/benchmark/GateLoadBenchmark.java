@@ -0,0 +1,103 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.gateservice.GateService;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.payment.SimulatedLatencyPaymentProcessor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load harness for GateService: many concurrent gate sessions, each mostly
+ * blocked (sensor wait, entry, dwell, exit with a slow card payment), run on
+ * a fixed platform thread pool versus one virtual thread per session.
+ * Run with: java com.airtribe.benchmark.GateLoadBenchmark [sessions] [platformThreads]
+ */
+public class GateLoadBenchmark {
+
+    private static final long SENSOR_MILLIS = 50;
+    private static final long DWELL_MILLIS = 20;
+    private static final long PAYMENT_MILLIS = 20;
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int platformThreads = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("=== Gate Load Benchmark (" + sessions + " sessions, "
+                + SENSOR_MILLIS + "ms sensor, " + DWELL_MILLIS + "ms dwell, "
+                + PAYMENT_MILLIS + "ms payment) ===\n");
+        System.out.printf("%-28s %12s %14s%n", "runtime", "seconds", "sessions/s");
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Result platform;
+        try (GateService service = GateService.platformThreads(buildLot(sessions), platformThreads)) {
+            platform = run(service, sessions);
+        }
+        Result virtual;
+        try (GateService service = GateService.virtualThreads(buildLot(sessions))) {
+            virtual = run(service, sessions);
+        }
+        System.setOut(console);
+
+        platform.print("platform pool (" + platformThreads + ")");
+        virtual.print("virtual thread per session");
+    }
+
+    private static Result run(GateService service, int sessions) {
+        AtomicInteger completed = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[sessions];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            Vehicle vehicle = new Vehicle("GATE-" + i, VehicleType.CAR);
+            futures[i] = service.submit(() -> {
+                ParkingLot lot = service.getParkingLot();
+                if (!pause(SENSOR_MILLIS)) {
+                    return;
+                }
+                ParkingTicket ticket = lot.getEntryPanel().parkVehicle(vehicle, lot);
+                if (ticket == null || !pause(DWELL_MILLIS)) {
+                    return;
+                }
+                lot.getExitPanel().unparkVehicle(ticket, lot);
+                completed.incrementAndGet();
+            });
+        }
+        CompletableFuture.allOf(futures).join();
+        long elapsed = System.nanoTime() - start;
+
+        if (completed.get() != sessions) {
+            throw new IllegalStateException((sessions - completed.get()) + " sessions did not complete");
+        }
+        return new Result(elapsed / 1_000_000_000.0, sessions);
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ParkingLot buildLot(int spots) {
+        return BenchmarkLots.build(new NearestAvailableSpotStrategy(), new SimulatedLatencyPaymentProcessor(PAYMENT_MILLIS),
+                1, spots, SpotType.MEDIUM);
+    }
+
+    private record Result(double seconds, int sessions) {
+        void print(String label) {
+            System.out.printf("%-28s %12.2f %14.0f%n", label, seconds, sessions / seconds);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.journal.TicketJournal;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.payment.CardPaymentProcessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Parks vehicles through a lot with a TicketJournal attached, takes a
+ * snapshot, journals a tail of further entries and exits, then rebuilds a
+ * fresh lot from the journal and reports how long recovery took.
+ * Run with: java com.airtribe.benchmark.JournalRecoveryBenchmark [tickets] [gates] [directory]
+ */
+public class JournalRecoveryBenchmark {
+
+    // Share of vehicles parked after the snapshot, and of those that leave again
+    private static final double TAIL_SHARE = 0.1;
+
+    public static void main(String[] args) throws Exception {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int gates = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Path directory = args.length > 2 ? Path.of(args[2]) : Files.createTempDirectory("ticket-journal");
+        int tail = (int) (tickets * TAIL_SHARE);
+
+        System.out.println("=== Journal Recovery Benchmark (" + tickets + " tickets, " + gates + " gates) ===\n");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        ParkingLot lot = buildLot(tickets + tail);
+        double entriesPerSecond;
+        long snapshotMillis;
+        try (TicketJournal journal = TicketJournal.open(directory)) {
+            lot.attachJournal(journal);
+            long start = System.nanoTime();
+            List<ParkingTicket> parked = park(lot, "JRN-", tickets - tail, gates);
+            entriesPerSecond = (tickets - tail) / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+            start = System.nanoTime();
+            journal.snapshot();
+            snapshotMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Tail replayed on top of the snapshot: new entries plus some exits
+            park(lot, "TAIL-", 2 * tail, gates);
+            for (int i = 0; i < tail; i++) {
+                lot.getExitPanel().unparkVehicle(parked.get(i), lot);
+            }
+        }
+        int expected = lot.getActiveTicketCount();
+        // Only the rebuilt lot should be on the heap while recovery is timed
+        lot = null;
+
+        ParkingLot restored = buildLot(tickets + tail);
+        System.gc();
+        TicketJournal.RecoveryResult result;
+        try (TicketJournal journal = TicketJournal.open(directory)) {
+            result = journal.recover(restored);
+        }
+        System.setOut(console);
+
+        System.out.printf("%-32s %12.0f%n", "journaled entries/s", entriesPerSecond);
+        System.out.printf("%-32s %12d%n", "snapshot ms", snapshotMillis);
+        System.out.printf("%-32s %12d%n", "tickets restored", result.restored());
+        System.out.printf("%-32s %12d%n", "records skipped", result.skipped());
+        System.out.printf("%-32s %12d%n", "recovery ms", result.millis());
+
+        if (result.restored() != expected || restored.getActiveTicketCount() != expected) {
+            throw new IllegalStateException("Expected " + expected + " tickets, restored " + result.restored());
+        }
+        if (args.length <= 2) {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static List<ParkingTicket> park(ParkingLot lot, String prefix, int vehicles, int gates)
+            throws InterruptedException {
+        List<ParkingTicket> tickets = new ArrayList<>(vehicles);
+        CountDownLatch completionLatch = new CountDownLatch(gates);
+        AtomicInteger next = new AtomicInteger();
+
+        for (int g = 0; g < gates; g++) {
+            Thread gate = new Thread(() -> {
+                List<ParkingTicket> issued = new ArrayList<>();
+                int i;
+                while ((i = next.getAndIncrement()) < vehicles) {
+                    issued.add(lot.getEntryPanel().parkVehicle(new Vehicle(prefix + i, VehicleType.CAR), lot));
+                }
+                synchronized (tickets) {
+                    tickets.addAll(issued);
+                }
+                completionLatch.countDown();
+            });
+            gate.start();
+        }
+        completionLatch.await();
+        return tickets;
+    }
+
+    private static ParkingLot buildLot(int spots) {
+        return BenchmarkLots.build(new NearestAvailableSpotStrategy(), new CardPaymentProcessor(),
+                BenchmarkLots.floorsFor(spots), BenchmarkLots.SPOTS_PER_FLOOR, SpotType.MEDIUM);
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.panels.ExitPanel;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.payment.CardPaymentProcessor;
+import com.airtribe.payment.CashPaymentProcessor;
+import com.airtribe.payment.PaymentProcessor;
+import com.airtribe.payment.SimulatedLatencyPaymentProcessor;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exit throughput with a fixed number of gates, comparing synchronous
+ * payments (the gate waits for each authorization) with unparkVehicleAsync
+ * (the gate moves on while the payment is in flight).
+ * Run with: java com.airtribe.benchmark.PaymentThroughputBenchmark [exits] [gates] [latencyMillis]
+ */
+public class PaymentThroughputBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int exits = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int gates = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+
+        PaymentProcessor simulated = new SimulatedLatencyPaymentProcessor(latencyMillis);
+
+        System.out.println("=== Payment Throughput Benchmark (" + exits + " exits, " + gates + " gates) ===\n");
+        System.out.printf("%-36s %12s%n", "payment", "exits/s");
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        double card = run(new CardPaymentProcessor(), exits, gates, false);
+        double cash = run(new CashPaymentProcessor(), exits, gates, false);
+        double simulatedSync = run(simulated, exits, gates, false);
+        double simulatedAsync = run(simulated, exits, gates, true);
+        System.setOut(console);
+
+        System.out.printf("%-36s %12.0f%n", "CardPaymentProcessor, sync", card);
+        System.out.printf("%-36s %12.0f%n", "CashPaymentProcessor, sync", cash);
+        System.out.printf("%-36s %12.0f%n", "simulated " + latencyMillis + "ms, sync", simulatedSync);
+        System.out.printf("%-36s %12.0f%n", "simulated " + latencyMillis + "ms, async", simulatedAsync);
+    }
+
+    private static double run(PaymentProcessor payment, int exits, int gates, boolean async)
+            throws InterruptedException {
+        ParkingLot lot = BenchmarkLots.build(new NearestAvailableSpotStrategy(), payment, 1, exits, SpotType.MEDIUM);
+        ExitPanel exitPanel = lot.getExitPanel();
+
+        List<ParkingTicket> tickets = new ArrayList<>(exits);
+        for (int i = 0; i < exits; i++) {
+            tickets.add(lot.getEntryPanel().parkVehicle(new Vehicle("BENCH-" + i, VehicleType.CAR), lot));
+        }
+
+        List<CompletableFuture<Boolean>> pending = new ArrayList<>(exits);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch completionLatch = new CountDownLatch(gates);
+        AtomicInteger next = new AtomicInteger();
+
+        for (int g = 0; g < gates; g++) {
+            Thread gate = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    int i;
+                    while ((i = next.getAndIncrement()) < exits) {
+                        if (async) {
+                            CompletableFuture<Boolean> exit = exitPanel.unparkVehicleAsync(tickets.get(i), lot);
+                            synchronized (pending) {
+                                pending.add(exit);
+                            }
+                        } else {
+                            exitPanel.unparkVehicle(tickets.get(i), lot);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    completionLatch.countDown();
+                }
+            });
+            gate.start();
+        }
+
+        long start = System.nanoTime();
+        startLatch.countDown();
+        completionLatch.await();
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        long elapsed = System.nanoTime() - start;
+
+        if (lot.getActiveTicketCount() != 0) {
+            throw new IllegalStateException(lot.getActiveTicketCount() + " tickets were not processed");
+        }
+        return exits / (elapsed / 1_000_000_000.0);
+    }
+}
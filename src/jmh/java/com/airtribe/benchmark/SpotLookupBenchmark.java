@@ -0,0 +1,118 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares ParkingFloor.getAvailableSpot (bitmap index) against the old
+ * linear HashSet scan at 1%, 50% and 99% occupancy.
+ * Run with: java com.airtribe.benchmark.SpotLookupBenchmark [spotsPerType]
+ */
+public class SpotLookupBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 100_000;
+    // Several random layouts per occupancy so results don't hinge on where one free spot lands
+    private static final int LAYOUTS = 8;
+
+    public static void main(String[] args) {
+        int spotsPerType = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        double[] occupancies = {0.01, 0.50, 0.99};
+        Vehicle car = new Vehicle("BENCH-CAR", VehicleType.CAR);
+
+        System.out.println("=== Spot Lookup Benchmark (" + spotsPerType * SpotType.values().length
+                + " spots per floor) ===\n");
+
+        ParkingFloor[][] floors = new ParkingFloor[occupancies.length][];
+        for (int i = 0; i < occupancies.length; i++) {
+            floors[i] = buildFloors(spotsPerType, occupancies[i]);
+        }
+
+        // Untimed pass so both lookups are compiled before anything is measured
+        for (ParkingFloor[] layouts : floors) {
+            measure(layouts, floor -> linearScan(floor, car));
+            measure(layouts, floor -> floor.getAvailableSpot(car));
+        }
+
+        System.out.printf("%-10s %18s %18s%n", "occupancy", "linear scan ns/op", "bitmap ns/op");
+        for (int i = 0; i < occupancies.length; i++) {
+            long linearNs = measure(floors[i], floor -> linearScan(floor, car));
+            long bitmapNs = measure(floors[i], floor -> floor.getAvailableSpot(car));
+
+            System.out.printf("%-10s %18.1f %18.1f%n", Math.round(occupancies[i] * 100) + "%",
+                    (double) linearNs / MEASURED_ROUNDS, (double) bitmapNs / MEASURED_ROUNDS);
+        }
+    }
+
+    private static ParkingFloor[] buildFloors(int spotsPerType, double occupancy) {
+        ParkingFloor[] floors = new ParkingFloor[LAYOUTS];
+        for (int i = 0; i < LAYOUTS; i++) {
+            floors[i] = buildFloor(spotsPerType, occupancy, new Random(i));
+        }
+        return floors;
+    }
+
+    private static ParkingFloor buildFloor(int spotsPerType, double occupancy, Random random) {
+        ParkingFloor floor = new ParkingFloor("BENCH");
+        List<ParkingSpot> spots = new ArrayList<>();
+        for (SpotType type : SpotType.values()) {
+            for (int i = 0; i < spotsPerType; i++) {
+                ParkingSpot spot = new ParkingSpot(type + "-" + i, type);
+                floor.addSpot(spot);
+                spots.add(spot);
+            }
+        }
+
+        // Occupy a random subset so free spots are scattered across the floor
+        Collections.shuffle(spots, random);
+        int toOccupy = (int) (spots.size() * occupancy);
+        for (int i = 0; i < toOccupy; i++) {
+            spots.get(i).parkVehicle(new Vehicle("BENCH-" + i, VehicleType.CAR));
+        }
+        return floor;
+    }
+
+    /**
+     * The lookup ParkingFloor.getAvailableSpot used before the bitmap index.
+     */
+    private static ParkingSpot linearScan(ParkingFloor floor, Vehicle vehicle) {
+        for (Map.Entry<SpotType, Set<ParkingSpot>> entry : floor.getSpotMap().entrySet()) {
+            for (ParkingSpot spot : entry.getValue()) {
+                if (spot.canFitVehicle(vehicle)) {
+                    return spot;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long measure(ParkingFloor[] layouts, Lookup lookup) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = lookup.find(layouts[i % LAYOUTS]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink = lookup.find(layouts[i % LAYOUTS]);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            System.out.println("(no spot found)");
+        }
+        return elapsed;
+    }
+
+    private interface Lookup {
+        ParkingSpot find(ParkingFloor floor);
+    }
+}
@@ -0,0 +1,74 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingstrategy.ParkingStrategy;
+import com.airtribe.parkingstrategy.RandomSpotStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spot lookup without claiming: the parking strategies' findSpot over a
+ * whole lot and ParkingFloor.getAvailableSpot on a single floor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+
+    private static final Vehicle CAR = new Vehicle("JMH-CAR", VehicleType.CAR);
+
+    @State(Scope.Benchmark)
+    public static class LotState {
+        @Param({"100", "10000", "1000000"})
+        int lotSize;
+
+        @Param({"0.01", "0.5", "0.99"})
+        double occupancy;
+
+        ParkingLot lot;
+        // Largest floor the lot size allows, for the single-floor lookup
+        ParkingFloor floor;
+        final ParkingStrategy nearest = new NearestAvailableSpotStrategy();
+        final ParkingStrategy random = new RandomSpotStrategy();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            lot = BenchmarkLots.build(lotSize, occupancy);
+            floor = BenchmarkLots.buildFloor(Math.min(lotSize, BenchmarkLots.SPOTS_PER_FLOOR), occupancy);
+        }
+    }
+
+    @Benchmark
+    public ParkingSpot nearestFindSpot(LotState state) {
+        return state.nearest.findSpot(CAR, state.lot);
+    }
+
+    @Benchmark
+    public ParkingSpot randomFindSpot(LotState state) {
+        return state.random.findSpot(CAR, state.lot);
+    }
+
+    @Benchmark
+    public ParkingSpot floorGetAvailableSpot(LotState state) {
+        return state.floor.getAvailableSpot(CAR);
+    }
+}
@@ -0,0 +1,100 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.coststrategy.CostComputationStrategy;
+import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.coststrategy.Tariff;
+import com.airtribe.coststrategy.TariffCostComputationStrategy;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingticket.ParkingTicket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * computeCost throughput of TariffCostComputationStrategy against
+ * StandardCostComputationStrategy, for tariffs with up to 1000 randomly
+ * generated rules and stays from one hour to a month. The compiled tariff
+ * should cost the same whatever the rule count and stay length.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TariffState {
+        @Param({"10", "100", "1000"})
+        public int rules;
+
+        @Param({"1", "72", "720"})
+        public int stayHours;
+
+        CostComputationStrategy tariffStrategy;
+        CostComputationStrategy standardStrategy;
+        ParkingTicket ticket;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            tariffStrategy = new TariffCostComputationStrategy(Tariff.parse(generateRules(rules)));
+            standardStrategy = new StandardCostComputationStrategy();
+            ParkingFloor floor = new ParkingFloor("F3");
+            ParkingSpot spot = new ParkingSpot("F3-S0", SpotType.MEDIUM);
+            floor.addSpot(spot);
+            ticket = new ParkingTicket(1L, null, new Vehicle("JMH-CAR", VehicleType.CAR), spot,
+                    System.currentTimeMillis() - stayHours * 3_600_000L);
+        }
+    }
+
+    @Benchmark
+    public double tariffComputeCost(TariffState state) {
+        return state.tariffStrategy.computeCost(state.ticket);
+    }
+
+    @Benchmark
+    public double standardComputeCost(TariffState state) {
+        return state.standardStrategy.computeCost(state.ticket);
+    }
+
+    /**
+     * Random time-of-day windows over all vehicle and spot types, plus caps,
+     * a grace period and per-floor multipliers.
+     */
+    static List<String> generateRules(int count) {
+        Random random = new Random(42);
+        String[] days = {"ALL", "WEEKDAY", "WEEKEND", "MON-WED", "FRI,SAT", "SUN"};
+        List<String> rules = new ArrayList<>(count);
+        rules.add("grace 10");
+        rules.add("cap CAR * 120");
+        rules.add("floor F3 0.8");
+        while (rules.size() < count) {
+            int start = random.nextInt(96);
+            int end = (start + 1 + random.nextInt(95)) % 96;
+            VehicleType vehicleType = VehicleType.values()[random.nextInt(VehicleType.values().length)];
+            rules.add(String.format(Locale.ROOT, "window %s %02d:%02d-%02d:%02d %s * %.2f",
+                    days[random.nextInt(days.length)], start / 4, start % 4 * 15, end / 4, end % 4 * 15,
+                    random.nextBoolean() ? "*" : vehicleType.name(), 0.5 + random.nextDouble()));
+        }
+        return rules;
+    }
+}
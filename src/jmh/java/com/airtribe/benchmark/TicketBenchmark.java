@@ -0,0 +1,106 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.coststrategy.CostComputationStrategy;
+import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.ParkingTicketGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-ticket work on the entry and exit paths:
+ * ParkingTicketGenerator.generateTicket and
+ * StandardCostComputationStrategy.computeCost. computeCostParsingSpotType
+ * is the earlier costing (spot type kept as a String and parsed back with
+ * SpotType.valueOf on every exit), kept here as the baseline.
+ * Run with -prof gc to see bytes allocated per ticket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TicketState {
+        final ParkingTicketGenerator generator = new ParkingTicketGenerator();
+        final CostComputationStrategy costStrategy = new StandardCostComputationStrategy();
+        final CostComputationStrategy parsingCostStrategy = new ParsingCostStrategy();
+        final Vehicle vehicle = new Vehicle("JMH-CAR", VehicleType.CAR);
+        final ParkingSpot spot = new ParkingSpot("F0-S0", SpotType.MEDIUM);
+        ParkingTicket ticket;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            ticket = generator.generateTicket(vehicle, spot);
+        }
+    }
+
+    @Benchmark
+    public ParkingTicket generateTicket(TicketState state) {
+        return state.generator.generateTicket(state.vehicle, state.spot);
+    }
+
+    @Benchmark
+    public String generateTicketWithTextId(TicketState state) {
+        return state.generator.generateTicket(state.vehicle, state.spot).getTicketId();
+    }
+
+    @Benchmark
+    public double computeCost(TicketState state) {
+        return state.costStrategy.computeCost(state.ticket);
+    }
+
+    @Benchmark
+    public double computeCostParsingSpotType(TicketState state) {
+        return state.parsingCostStrategy.computeCost(state.ticket);
+    }
+
+    /**
+     * The costing StandardCostComputationStrategy did before tickets carried
+     * a SpotType and a precomputed rate.
+     */
+    static final class ParsingCostStrategy implements CostComputationStrategy {
+        @Override
+        public double computeCost(ParkingTicket ticket) {
+            long durationMillis = System.currentTimeMillis() - ticket.getEntryTime();
+            double durationHours = Math.max(durationMillis / (1000.0 * 60 * 60), 0.5);
+            double baseRate = switch (ticket.getVehicle().getType()) {
+                case MOTORCYCLE -> 5.0;
+                case CAR -> 10.0;
+                case BUS -> 25.0;
+                case TRUCK -> 20.0;
+            };
+            double totalCost = durationHours * baseRate * spotMultiplier(ticket.getSpotType().name());
+            return Math.round(totalCost * 100.0) / 100.0;
+        }
+
+        private static double spotMultiplier(String spotType) {
+            try {
+                return switch (SpotType.valueOf(spotType.toUpperCase())) {
+                    case SMALL -> 1.0;
+                    case MEDIUM -> 1.3;
+                    case LARGE -> 1.5;
+                };
+            } catch (IllegalArgumentException e) {
+                return 1.0;
+            }
+        }
+    }
+}
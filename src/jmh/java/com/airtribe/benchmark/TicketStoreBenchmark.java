@@ -0,0 +1,115 @@
+package com.airtribe.benchmark;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.ParkingTicketGenerator;
+import com.airtribe.parkingticket.TicketIds;
+import com.airtribe.payment.CardPaymentProcessor;
+import com.airtribe.ticketstore.CompactTicketStore;
+import com.airtribe.ticketstore.ConcurrentTicketStore;
+import com.airtribe.ticketstore.TicketStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Retained heap, full-GC time and issue/remove cost of the active-ticket store
+ * with millions of tickets: ConcurrentTicketStore (ticket objects in a
+ * ConcurrentHashMap) versus CompactTicketStore (packed primitive records).
+ * Run with: java -Xmx4g com.airtribe.benchmark.TicketStoreBenchmark [tickets]
+ */
+public class TicketStoreBenchmark {
+
+    public static void main(String[] args) {
+        int tickets = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        System.out.println("=== Ticket Store Benchmark (" + tickets + " active tickets) ===\n");
+        System.out.printf("%-24s %14s %12s %12s %12s%n",
+                "store", "bytes/ticket", "issue ns", "remove ns", "full gc ms");
+
+        ParkingLot lot = BenchmarkLots.build(new NearestAvailableSpotStrategy(), new CardPaymentProcessor(),
+                BenchmarkLots.floorsFor(tickets), BenchmarkLots.SPOTS_PER_FLOOR, SpotType.MEDIUM);
+        // Run each store twice and report the second run, after the JIT has settled
+        for (int round = 0; round < 2; round++) {
+            Result concurrent = run(lot, new ConcurrentTicketStore(), tickets);
+            Result compact = run(lot, new CompactTicketStore(lot), tickets);
+            if (round == 1) {
+                concurrent.print("ConcurrentTicketStore");
+                compact.print("CompactTicketStore");
+            }
+        }
+    }
+
+    private static Result run(ParkingLot lot, TicketStore store, int tickets) {
+        lot.setTicketStore(store);
+        ParkingTicketGenerator generator = new ParkingTicketGenerator();
+        ParkingTicketGenerator.resetCounter();
+        ParkingSpot[] spots = new ParkingSpot[tickets];
+        for (int i = 0; i < tickets; i++) {
+            spots[i] = lot.getSpotByOrdinal(i);
+        }
+        long[] numbers = new long[tickets];
+
+        long baseline = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < tickets; i++) {
+            ParkingTicket ticket = generator.generateTicket(new Vehicle("KA-" + i, VehicleType.CAR), spots[i]);
+            numbers[i] = ticket.getTicketNumber();
+            lot.issueTicket(ticket);
+        }
+        long issueNanos = System.nanoTime() - start;
+        long retained = usedHeap() - baseline;
+        // Full collection with the tickets live: the tracing cost the store adds to every old-gen GC
+        long gcBefore = gcMillis();
+        System.gc();
+        long gc = gcMillis() - gcBefore;
+
+        // Exits come in a different order than entries
+        String[] ticketIds = new String[tickets];
+        for (int i = 0; i < tickets; i++) {
+            ticketIds[i] = TicketIds.format(numbers[(int) ((i * 2654435761L) % tickets)]);
+        }
+        start = System.nanoTime();
+        int removed = 0;
+        for (String ticketId : ticketIds) {
+            if (lot.removeTicket(ticketId) != null) {
+                removed++;
+            }
+        }
+        long removeNanos = System.nanoTime() - start;
+
+        if (removed != tickets || lot.getActiveTicketCount() != 0) {
+            throw new IllegalStateException("Removed " + removed + " of " + tickets + " tickets");
+        }
+        return new Result(retained / (double) tickets, issueNanos / (double) tickets,
+                removeNanos / (double) tickets, gc);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private record Result(double bytesPerTicket, double issueNanos, double removeNanos, long gcMillis) {
+        void print(String label) {
+            System.out.printf("%-24s %14.0f %12.0f %12.0f %12d%n",
+                    label, bytesPerTicket, issueNanos, removeNanos, gcMillis);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.airtribe;
 
 import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.displaypanel.DisplayRenderer;
+import com.airtribe.metrics.ParkingMetrics;
 import com.airtribe.parkingfloor.ParkingFloor;
 import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
 import com.airtribe.parkingticket.ParkingTicket;
@@ -38,9 +40,27 @@ public class ConcurrencyTest {
         System.out.println("\n--- Test 3: Mixed entry and exit operations ---");
         testMixedOperations(parkingLot);
         
+        printMetrics(parkingLot);
         System.out.println("\n=== All concurrency tests completed ===");
     }
     
+    /**
+     * Prints the latencies and counters the lot recorded during the tests.
+     */
+    private static void printMetrics(ParkingLot parkingLot) {
+        ParkingMetrics metrics = parkingLot.getMetrics();
+        System.out.println("\n--- Metrics ---");
+        System.out.println("park:      " + metrics.getParkLatency());
+        System.out.println("find spot: " + metrics.getFindSpotLatency());
+        System.out.println("unpark:    " + metrics.getUnparkLatency());
+        System.out.println("cost:      " + metrics.getCostLatency());
+        System.out.println("payment:   " + metrics.getPaymentLatency());
+        System.out.println("race retries: " + metrics.getRaceRetries()
+                + ", spots scanned per lookup: " + String.format("%.1f", metrics.getSpotsScannedPerLookup()));
+        System.out.println("rejections: " + metrics.getRejections());
+        System.out.println("floor occupancy: " + metrics.getFloorOccupancy());
+    }
+    
     private static ParkingLot setupParkingLot() {
         ParkingLot lot = new ParkingLot(
             new NearestAvailableSpotStrategy(),
@@ -90,13 +110,10 @@ public class ConcurrencyTest {
                     // Wait for all threads to be ready
                     startLatch.await();
                     
-                    long startTime = System.currentTimeMillis();
                     ParkingTicket ticket = parkingLot.getEntryPanel().parkVehicle(vehicle, parkingLot);
-                    long endTime = System.currentTimeMillis();
                     
                     if (ticket != null) {
-                        System.out.println("✓ " + vehicle.getLicenseNumber() + " parked at " +
-                                         ticket.getSpotId() + " (took " + (endTime - startTime) + "ms)");
+                        System.out.println("✓ " + vehicle.getLicenseNumber() + " parked at " + ticket.getSpotId());
                     } else {
                         System.out.println("✗ " + vehicle.getLicenseNumber() + " could not find parking");
                     }
@@ -115,6 +132,7 @@ public class ConcurrencyTest {
         // Wait for all to complete
         completionLatch.await(10, TimeUnit.SECONDS);
         executor.shutdown();
+        DisplayRenderer.getDefault().flush();
         
         System.out.println("Active tickets in system: " + parkingLot.getActiveTicketCount());
     }
@@ -150,12 +168,9 @@ public class ConcurrencyTest {
                 try {
                     startLatch.await();
                     
-                    long startTime = System.currentTimeMillis();
                     parkingLot.getExitPanel().unparkVehicle(ticket, parkingLot);
-                    long endTime = System.currentTimeMillis();
                     
-                    System.out.println("✓ " + ticket.getVehicle().getLicenseNumber() +
-                                     " exited (took " + (endTime - startTime) + "ms)");
+                    System.out.println("✓ " + ticket.getVehicle().getLicenseNumber() + " exited");
                 } catch (Exception e) {
                     System.err.println("Error exiting " + ticket.getVehicle().getLicenseNumber() +
                                      ": " + e.getMessage());
@@ -168,6 +183,7 @@ public class ConcurrencyTest {
         startLatch.countDown();
         completionLatch.await(10, TimeUnit.SECONDS);
         executor.shutdown();
+        DisplayRenderer.getDefault().flush();
         
         System.out.println("Active tickets in system: " + parkingLot.getActiveTicketCount());
     }
@@ -231,6 +247,7 @@ public class ConcurrencyTest {
         startLatch.countDown();
         completionLatch.await(10, TimeUnit.SECONDS);
         executor.shutdown();
+        DisplayRenderer.getDefault().flush();
         
         System.out.println("Active tickets in system: " + parkingLot.getActiveTicketCount());
     }
@@ -0,0 +1,262 @@
+package com.airtribe;
+
+import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.journal.TicketJournal;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.ParkingTicketGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks that TicketJournal.recover rebuilds exactly the tickets that were
+ * active when the journal was closed: with a damaged record at the tail of
+ * the last segment, and with a snapshot followed by further entries and
+ * exits. Each case simulates a restart (fresh lot, ticket counter reset)
+ * and throws IllegalStateException if the restored lot is wrong.
+ */
+public class JournalRecoveryTest {
+
+    private static final int SPOTS = 64;
+    // Journal record framing: [int payloadLength][int crc32c][payload]
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== Ticket Journal Recovery Test ===\n");
+
+        System.out.println("--- Test 1: Record with a bad checksum at the tail ---");
+        testDamagedTail(false);
+
+        System.out.println("\n--- Test 2: Torn record at the tail ---");
+        testDamagedTail(true);
+
+        System.out.println("\n--- Test 3: Snapshot plus tail, with exits after the snapshot ---");
+        testSnapshotAndTail();
+
+        System.out.println("\n=== All journal recovery tests passed ===");
+    }
+
+    /**
+     * Parks vehicles, then damages the last record written: either flips a
+     * payload byte (checksum mismatch) or sets a length running past the
+     * end of the file (a write torn mid-record). Recovery must restore every
+     * ticket but the last and leave the last one's spot free.
+     */
+    private static void testDamagedTail(boolean torn) throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            ParkingLot lot = buildLot();
+            List<ParkingTicket> parked;
+            try (TicketJournal journal = TicketJournal.open(directory)) {
+                lot.attachJournal(journal);
+                parked = park(lot, "TAIL-", 20);
+            }
+            damageLastRecord(lastSegment(directory), torn);
+
+            ParkingLot restored = recover(directory);
+            List<ParkingTicket> expected = parked.subList(0, parked.size() - 1);
+            checkRestored(restored, expected);
+            ParkingTicket lost = parked.get(parked.size() - 1);
+            check(restored.getTicket(lost.getTicketId()) == null, "damaged record was restored: " + lost.getTicketId());
+            check(!restored.getSpotById(lost.getSpotId()).isOccupied(), "spot of damaged record is occupied");
+            // The damaged ticket never reached the journal, so only the restored numbers are taken
+            checkNewTicketIsFresh(restored, expected);
+            System.out.println("Restored " + expected.size() + " of " + parked.size() + " tickets; damaged record dropped");
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Parks vehicles, snapshots, then parks more and lets some vehicles
+     * from before and after the snapshot leave. Recovery must restore
+     * exactly the vehicles still parked.
+     */
+    private static void testSnapshotAndTail() throws IOException {
+        Path directory = Files.createTempDirectory("journal-test");
+        try {
+            ParkingLot lot = buildLot();
+            List<ParkingTicket> active = new ArrayList<>();
+            List<ParkingTicket> all = new ArrayList<>();
+            try (TicketJournal journal = TicketJournal.open(directory)) {
+                lot.attachJournal(journal);
+                List<ParkingTicket> beforeSnapshot = park(lot, "SNAP-", 30);
+                journal.snapshot();
+                List<ParkingTicket> afterSnapshot = park(lot, "TAIL-", 10);
+
+                // Exits recorded after the snapshot, of vehicles parked before and after it
+                for (int i = 0; i < 5; i++) {
+                    exit(lot, beforeSnapshot.get(i));
+                }
+                for (int i = 0; i < 2; i++) {
+                    exit(lot, afterSnapshot.get(i));
+                }
+                active.addAll(beforeSnapshot.subList(5, beforeSnapshot.size()));
+                active.addAll(afterSnapshot.subList(2, afterSnapshot.size()));
+                all.addAll(beforeSnapshot);
+                all.addAll(afterSnapshot);
+            }
+            check(lot.getActiveTicketCount() == active.size(), "lot has " + lot.getActiveTicketCount()
+                    + " active tickets before restart, expected " + active.size());
+
+            ParkingLot restored = recover(directory);
+            checkRestored(restored, active);
+            for (ParkingTicket left : all) {
+                if (!active.contains(left)) {
+                    check(restored.getTicket(left.getTicketId()) == null, "exited ticket restored: " + left.getTicketId());
+                    check(!restored.getSpotById(left.getSpotId()).isOccupied(), "spot of exited ticket is occupied: "
+                            + left.getSpotId());
+                }
+            }
+            checkNewTicketIsFresh(restored, all);
+            System.out.println("Restored " + active.size() + " of " + all.size() + " tickets; "
+                    + (all.size() - active.size()) + " exits applied");
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    /**
+     * Rebuilds a fresh lot from the journal as a restarted process would.
+     */
+    private static ParkingLot recover(Path directory) throws IOException {
+        ParkingTicketGenerator.resetCounter();
+        ParkingLot restored = buildLot();
+        try (TicketJournal journal = TicketJournal.open(directory)) {
+            TicketJournal.RecoveryResult result = journal.recover(restored);
+            System.out.println("Recovery: " + result.restored() + " restored, " + result.skipped() + " skipped");
+            check(result.skipped() == 0, result.skipped() + " records skipped");
+        }
+        return restored;
+    }
+
+    private static void checkRestored(ParkingLot restored, List<ParkingTicket> expected) {
+        check(restored.getActiveTicketCount() == expected.size(), "restored " + restored.getActiveTicketCount()
+                + " tickets, expected " + expected.size());
+        int occupied = 0;
+        for (ParkingFloor floor : restored.getFloors()) {
+            occupied += (int) (floor.getSpotCount() - floor.getAvailableSpotCount());
+        }
+        check(occupied == expected.size(), occupied + " spots occupied, expected " + expected.size());
+        for (ParkingTicket original : expected) {
+            ParkingTicket ticket = restored.getTicket(original.getTicketId());
+            check(ticket != null, "ticket not restored: " + original.getTicketId());
+            check(ticket.getSpotId().equals(original.getSpotId()), "ticket " + original.getTicketId()
+                    + " restored to spot " + ticket.getSpotId() + ", expected " + original.getSpotId());
+            check(ticket.getEntryTime() == original.getEntryTime(), "entry time of " + original.getTicketId()
+                    + " changed");
+            check(ticket.getVehicle().getLicenseNumber().equals(original.getVehicle().getLicenseNumber()),
+                    "plate of " + original.getTicketId() + " changed");
+            check(restored.getSpotById(original.getSpotId()).isOccupied(), "spot " + original.getSpotId()
+                    + " is not occupied");
+            ParkingTicket byPlate = restored.getTicketByPlate(original.getVehicle().getLicenseNumber());
+            check(byPlate != null && byPlate.getTicketId().equals(original.getTicketId()),
+                    "plate " + original.getVehicle().getLicenseNumber() + " not indexed");
+        }
+    }
+
+    /**
+     * A ticket issued after recovery must not reuse the number of one issued before the restart.
+     */
+    private static void checkNewTicketIsFresh(ParkingLot restored, List<ParkingTicket> issued) {
+        ParkingTicket fresh = restored.getEntryPanel().parkVehicle(new Vehicle("FRESH-1", VehicleType.CAR), restored);
+        check(fresh != null, "no spot for a new vehicle after recovery");
+        for (ParkingTicket ticket : issued) {
+            check(!ticket.getTicketId().equals(fresh.getTicketId()), "ticket ID reused after recovery: "
+                    + fresh.getTicketId());
+        }
+    }
+
+    private static List<ParkingTicket> park(ParkingLot lot, String prefix, int vehicles) {
+        List<ParkingTicket> tickets = new ArrayList<>();
+        for (int i = 0; i < vehicles; i++) {
+            ParkingTicket ticket = lot.getEntryPanel().parkVehicle(new Vehicle(prefix + i, VehicleType.CAR), lot);
+            check(ticket != null, "vehicle " + prefix + i + " was not parked");
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    private static void exit(ParkingLot lot, ParkingTicket ticket) {
+        lot.getExitPanel().unparkVehicle(ticket, lot);
+        check(lot.getTicket(ticket.getTicketId()) == null, "vehicle with " + ticket.getTicketId() + " did not exit");
+    }
+
+    private static Path lastSegment(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log"))
+                    .filter(JournalRecoveryTest::hasRecords)
+                    .max(Comparator.comparing(path -> path.getFileName().toString()))
+                    .orElseThrow(() -> new IllegalStateException("no journal segment with records in " + directory));
+        }
+    }
+
+    private static boolean hasRecords(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            return channel.read(length, 0) == Integer.BYTES && length.getInt(0) > 0;
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot read " + segment, e);
+        }
+    }
+
+    /**
+     * Walks the record framing to the last record and damages it.
+     */
+    private static void damageLastRecord(Path segment, boolean torn) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer file = ByteBuffer.allocate((int) channel.size());
+            channel.read(file, 0);
+            int last = -1;
+            int position = 0;
+            while (position + HEADER_BYTES <= file.capacity() && file.getInt(position) > 0) {
+                last = position;
+                position += HEADER_BYTES + file.getInt(position);
+            }
+            check(last >= 0, "no records in " + segment);
+            ByteBuffer patch = ByteBuffer.allocate(Integer.BYTES);
+            if (torn) {
+                // A length running past the end of the file, as if the rest of the write never landed
+                channel.write(patch.putInt(0, file.capacity()), last);
+            } else {
+                int payloadByte = last + HEADER_BYTES + 1;
+                channel.write(ByteBuffer.wrap(new byte[] {(byte) (file.get(payloadByte) ^ 0x5A)}), payloadByte);
+            }
+        }
+    }
+
+    private static ParkingLot buildLot() {
+        ParkingLot lot = new ParkingLot(new NearestAvailableSpotStrategy(), amount -> true,
+                new StandardCostComputationStrategy());
+        ParkingFloor floor = new ParkingFloor("J1");
+        for (int s = 0; s < SPOTS; s++) {
+            floor.addSpot(new ParkingSpot("J1-S" + s, SpotType.MEDIUM));
+        }
+        lot.addFloor(floor);
+        return lot;
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new IllegalStateException("Journal recovery check failed: " + failure);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
 import com.airtribe.parkingstrategy.RandomSpotStrategy;
 import com.airtribe.parkingticket.ParkingTicket;
 import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.displaypanel.DisplayRenderer;
 import com.airtribe.payment.CardPaymentProcessor;
 
 import java.util.concurrent.ExecutorService;
@@ -85,6 +86,9 @@ public class Main {
         Thread.sleep(1000);
         lot.getExitPanel().unparkVehicle(t4, lot);
         lot.getExitPanel().unparkVehicle(t6, lot);
+
+        // Display output is rendered in the background; let it catch up before the next demo
+        DisplayRenderer.getDefault().flush();
     }
     
     private static void runConcurrentDemo() throws InterruptedException {
@@ -126,11 +130,11 @@ public class Main {
                     ParkingTicket ticket = lot.getEntryPanel().parkVehicle(vehicles[index], lot);
                     if (ticket != null) {
                         System.out.println("✓ Thread " + Thread.currentThread().getName() + 
-                                         ": " + vehicles[index].getLicensePlate() + 
+                                         ": " + vehicles[index].getLicenseNumber() + 
                                          " successfully parked at " + ticket.getSpotId());
                     } else {
                         System.out.println("✗ Thread " + Thread.currentThread().getName() + 
-                                         ": " + vehicles[index].getLicensePlate() + 
+                                         ": " + vehicles[index].getLicenseNumber() + 
                                          " could not find parking (lot may be full)");
                     }
                 } catch (InterruptedException e) {
@@ -142,6 +146,7 @@ public class Main {
         // Shutdown and wait
         executor.shutdown();
         executor.awaitTermination(5, TimeUnit.SECONDS);
+        DisplayRenderer.getDefault().flush();
         
         System.out.println("\nFinal state: " + lot.getActiveTicketCount() + " vehicles parked");
         System.out.println("\nNote: Some vehicles couldn't park because there were only 4 spots for 6 vehicles.");
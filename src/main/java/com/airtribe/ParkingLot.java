@@ -1,14 +1,21 @@
 package com.airtribe;
 
 import com.airtribe.coststrategy.CostComputationStrategy;
+import com.airtribe.journal.TicketJournal;
+import com.airtribe.metrics.ParkingMetrics;
 import com.airtribe.panels.EntryPanel;
 import com.airtribe.panels.ExitPanel;
 import com.airtribe.parkingfloor.ParkingFloor;
 import com.airtribe.parkingstrategy.ParkingStrategy;
 import com.airtribe.parkingticket.ParkingTicket;
 import com.airtribe.payment.PaymentProcessor;
+import com.airtribe.reservation.ReservationBook;
+import com.airtribe.ticketstore.ConcurrentTicketStore;
+import com.airtribe.ticketstore.PlateIndex;
+import com.airtribe.ticketstore.TicketStore;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -16,18 +23,75 @@ public class ParkingLot {
     private final List<ParkingFloor> floors;
     private final EntryPanel entryPanel;
     private ExitPanel exitPanel;
-    // Using ConcurrentHashMap for thread-safe ticket management
-    private final ConcurrentHashMap<String, ParkingTicket> activeTickets = new ConcurrentHashMap<>();
+    // Thread-safe store of active tickets; a ConcurrentHashMap unless replaced with setTicketStore
+    private volatile TicketStore activeTickets = new ConcurrentTicketStore();
+    // Lot-wide spot ID registry, filled through addFloor and ParkingFloor.addSpot
+    private final ConcurrentHashMap<String, ParkingSpot> spotRegistry = new ConcurrentHashMap<>();
+    // Spots by lot ordinal; grown under the lock, published by the volatile spotCount write
+    private final Object spotTableLock = new Object();
+    private volatile ParkingSpot[] spotsByOrdinal = new ParkingSpot[16];
+    private volatile int spotCount;
+    // Active tickets (and gates' pending entries) by license plate
+    private final PlateIndex plateIndex = new PlateIndex();
+    // Optional write-ahead journal of park and exit events
+    private volatile TicketJournal journal;
+    // Latency histograms and counters recorded by the entry and exit panels
+    private final ParkingMetrics metrics;
+    // Advance bookings, held in per-floor pools
+    private final ReservationBook reservations;
 
     public ParkingLot(ParkingStrategy strategy, PaymentProcessor paymentProcessor,
                       CostComputationStrategy costStrategy) {
         this.floors = new ArrayList<>();
+        this.metrics = new ParkingMetrics(floors);
+        this.reservations = new ReservationBook(floors);
         this.entryPanel = new EntryPanel(strategy);
         this.exitPanel = new ExitPanel(paymentProcessor, costStrategy);
     }
 
     public void addFloor(ParkingFloor floor) {
         floors.add(floor);
+        floor.attachTo(this);
+    }
+
+    /**
+     * Adds a spot to the lot-wide registry so getSpotById is a single lookup.
+     * Called by ParkingFloor; spots are registered as they join the lot.
+     *
+     * @throws IllegalArgumentException if a different spot with the same ID is registered
+     */
+    public void registerSpot(ParkingSpot spot) {
+        ParkingSpot existing = spotRegistry.putIfAbsent(spot.getId(), spot);
+        if (existing != null) {
+            if (existing != spot) {
+                throw new IllegalArgumentException("Duplicate spot ID in parking lot: " + spot.getId());
+            }
+            return;
+        }
+        synchronized (spotTableLock) {
+            int ordinal = spotCount;
+            ParkingSpot[] table = spotsByOrdinal;
+            if (ordinal == table.length) {
+                table = Arrays.copyOf(table, ordinal * 2);
+                spotsByOrdinal = table;
+            }
+            table[ordinal] = spot;
+            spot.assignLotOrdinal(ordinal);
+            spotCount = ordinal + 1;
+        }
+    }
+
+    /**
+     * Resolves a spot by its lot ordinal (see ParkingSpot.getLotOrdinal).
+     *
+     * @return the spot, or null if no spot has that ordinal
+     */
+    public ParkingSpot getSpotByOrdinal(int ordinal) {
+        // Read the count first: its volatile write published the table entry
+        if (ordinal < 0 || ordinal >= spotCount) {
+            return null;
+        }
+        return spotsByOrdinal[ordinal];
     }
 
     public List<ParkingFloor> getFloors() {
@@ -42,15 +106,72 @@ public class ParkingLot {
         return exitPanel;
     }
 
+    /**
+     * Returns the lot's latency histograms and counters. Register them
+     * with JMX (ParkingMetrics.register) or serve them with MetricsServer.
+     */
+    public ParkingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the lot's advance reservations. Holders check in with
+     * EntryPanel.parkReservedVehicle.
+     */
+    public ReservationBook getReservations() {
+        return reservations;
+    }
+
     public void changeStrategy(ParkingStrategy strategy) {
         entryPanel.changeStrategy(strategy);
     }
 
     /**
-     * Issues a parking ticket. Thread-safe operation.
+     * Issues a parking ticket and indexes it by plate. Thread-safe operation.
+     * Also puts back a ticket taken by claimTicketForExit when the exit fails.
+     * The plate is bound first, so a ticket is never stored with its plate
+     * bound elsewhere; if storing fails the new binding is undone.
+     *
+     * @throws IllegalStateException if the plate is bound to another ticket
      */
     public void issueTicket(ParkingTicket ticket) {
-        activeTickets.put(ticket.getTicketId(), ticket);
+        boolean bound = plateIndex.bind(ticket);
+        try {
+            activeTickets.put(ticket);
+        } catch (RuntimeException e) {
+            if (bound) {
+                plateIndex.unbind(ticket);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Issues a batch of parking tickets. Null entries are skipped.
+     * The default store inserts the batch with a single putAll.
+     * Thread-safe operation. All plates are bound before any ticket is
+     * stored; if a plate is bound elsewhere or storing fails, the bindings
+     * made so far are undone and no ticket of the batch is issued.
+     *
+     * @throws IllegalStateException if a plate is bound to another ticket
+     */
+    public void issueTickets(ParkingTicket[] tickets) {
+        boolean[] bound = new boolean[tickets.length];
+        try {
+            for (int i = 0; i < tickets.length; i++) {
+                if (tickets[i] != null) {
+                    bound[i] = plateIndex.bind(tickets[i]);
+                }
+            }
+            activeTickets.putAll(tickets);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < tickets.length; i++) {
+                if (bound[i]) {
+                    plateIndex.unbind(tickets[i]);
+                }
+            }
+            throw e;
+        }
     }
 
     /**
@@ -61,35 +182,170 @@ public class ParkingLot {
     }
 
     /**
-     * Removes a ticket from active tickets. Thread-safe operation.
-     * Should be called after successful exit.
+     * Removes a ticket from active tickets, and its plate from the plate
+     * index. Thread-safe operation.
      */
     public ParkingTicket removeTicket(String ticketId) {
+        ParkingTicket ticket = activeTickets.remove(ticketId);
+        if (ticket != null) {
+            plateIndex.unbind(ticket);
+        }
+        return ticket;
+    }
+
+    /**
+     * Removes a ticket from active tickets for an exit in progress, leaving
+     * its plate bound so the vehicle can't be admitted again before the exit
+     * is final. Removal is atomic, so at most one gate gets the ticket back.
+     * The exit ends with issueTicket (put back) or unbindPlate (left).
+     */
+    public ParkingTicket claimTicketForExit(String ticketId) {
         return activeTickets.remove(ticketId);
     }
 
+    /**
+     * Frees the plate of a ticket whose vehicle has left. Called by
+     * ExitPanel once the exit is final.
+     */
+    public void unbindPlate(ParkingTicket ticket) {
+        plateIndex.unbind(ticket);
+    }
+
+    /**
+     * Finds the active ticket for a license plate (lost-ticket desk, exit
+     * camera). Plates match regardless of case, spaces, hyphens and dots.
+     *
+     * @return the ticket, or null if the vehicle isn't parked here
+     */
+    public ParkingTicket getTicketByPlate(String licenseNumber) {
+        String ticketId = plateIndex.findTicketId(licenseNumber);
+        return ticketId == null ? null : activeTickets.get(ticketId);
+    }
+
+    /**
+     * Atomically claims a plate for an entry in progress, so the same
+     * vehicle can't be parked twice by concurrent gates. Called by
+     * EntryPanel before it claims a spot; issuing the ticket completes the
+     * reservation, releasePlate abandons it.
+     *
+     * @return false if the plate is already parked or being parked
+     */
+    public boolean reservePlate(String licenseNumber) {
+        return plateIndex.reserve(licenseNumber);
+    }
+
+    /**
+     * Abandons a plate reservation whose entry didn't produce a ticket.
+     */
+    public void releasePlate(String licenseNumber) {
+        plateIndex.release(licenseNumber);
+    }
+
+    /**
+     * Starts journaling park and exit events. Attach after TicketJournal.recover
+     * so restored tickets are not journaled twice.
+     */
+    public void attachJournal(TicketJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Journals a parked vehicle, if a journal is attached.
+     * Called by EntryPanel before the ticket is issued.
+     */
+    public void recordEntry(ParkingTicket ticket) {
+        TicketJournal current = journal;
+        if (current != null) {
+            current.appendParked(ticket);
+        }
+    }
+
+    /**
+     * Journals a batch of parked vehicles, if a journal is attached.
+     * Null entries are skipped.
+     */
+    public void recordEntries(ParkingTicket[] tickets) {
+        TicketJournal current = journal;
+        if (current != null) {
+            current.appendParked(tickets);
+        }
+    }
+
+    /**
+     * Journals a completed exit, if a journal is attached.
+     * Called by ExitPanel before the spot is released.
+     */
+    public void recordExit(ParkingTicket ticket) {
+        TicketJournal current = journal;
+        if (current != null) {
+            current.appendExited(ticket);
+        }
+    }
+
+    /**
+     * Replaces the store holding active tickets, e.g. with a CompactTicketStore
+     * for lots with millions of concurrent sessions. Only allowed while no
+     * tickets are active.
+     *
+     * @throws IllegalStateException if tickets are active
+     */
+    public void setTicketStore(TicketStore ticketStore) {
+        if (ticketStore == null) {
+            throw new IllegalArgumentException("Ticket store cannot be null");
+        }
+        if (activeTickets.size() > 0) {
+            throw new IllegalStateException("Cannot replace the ticket store while tickets are active");
+        }
+        this.activeTickets = ticketStore;
+    }
+
     public void setExitPanel(ExitPanel exitPanel) {
         this.exitPanel = exitPanel;
     }
 
+    /**
+     * Resolves a spot by ID in constant time. Thread-safe operation.
+     */
     public ParkingSpot getSpotById(String spotId) {
+        return spotRegistry.get(spotId);
+    }
+
+    public void isParkingLotFull() {
+        if (getAvailableSpotCount() > 0) {
+            System.out.println("Parking lot is not full.");
+            return;
+        }
+        System.out.println("Parking lot is full.");
+    }
+
+    /**
+     * Returns the number of free spots of the given type across all floors.
+     * Sums the per-floor counters, so the cost is O(floors), not O(spots).
+     */
+    public long getAvailableSpotCount(SpotType type) {
+        long available = 0;
         for (ParkingFloor floor : floors) {
-            ParkingSpot spot = floor.getSpotById(spotId);
-            if (spot != null) {
-                return spot;
-            }
+            available += floor.getAvailableSpotCount(type);
         }
-        return null;
+        return available;
     }
 
-    public void isParkingLotFull() {
+    /**
+     * Returns the number of free spots across all floors and types.
+     */
+    public long getAvailableSpotCount() {
+        long available = 0;
         for (ParkingFloor floor : floors) {
-            if (!floor.isFull()) {
-                System.out.println("Parking lot is not full.");
-                return;
-            }
+            available += floor.getAvailableSpotCount();
         }
-        System.out.println("Parking lot is full.");
+        return available;
+    }
+
+    /**
+     * Returns the number of spots registered with the lot, free or not. O(1).
+     */
+    public int getSpotCount() {
+        return spotCount;
     }
 
     /**
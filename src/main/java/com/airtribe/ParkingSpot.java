@@ -1,68 +1,126 @@
 package com.airtribe;
 
-import java.util.concurrent.locks.ReentrantLock;
+import com.airtribe.parkingfloor.FreeSpotIndex;
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ParkingSpot {
 
     private final String id;
     private final SpotType spotType;
-    private volatile boolean isOccupied;
-    private Vehicle parkedVehicle;
-    private final ReentrantLock lock = new ReentrantLock();
+    // The only mutable state: null when free, the parked vehicle otherwise.
+    // Claiming is a single CAS and reads are plain volatile loads.
+    private final AtomicReference<Vehicle> occupant = new AtomicReference<>();
+    // Set once by the owning floor so parking keeps its free-spot bitmap current
+    private volatile FreeSpotIndex freeSpotIndex;
+    private volatile ParkingFloor floor;
+    private int indexOrdinal = -1;
+    // Position in the owning lot's spot table, assigned by ParkingLot.registerSpot
+    private volatile int lotOrdinal = -1;
 
     public ParkingSpot(String id, SpotType spotType) {
         this.id = id;
         this.spotType = spotType;
-        this.isOccupied = false;
     }
 
     public boolean canFitVehicle(Vehicle vehicle) {
-        if (isOccupied) {
+        if (isOccupied()) {
             return false;
         }
 
-        return switch (vehicle.getType()) {
+        return isCompatible(spotType, vehicle.getType());
+    }
+
+    /**
+     * Whether a spot of the given type can hold a vehicle of the given type,
+     * ignoring occupancy.
+     */
+    public static boolean isCompatible(SpotType spotType, VehicleType vehicleType) {
+        return switch (vehicleType) {
             case MOTORCYCLE -> spotType == SpotType.SMALL;
             case CAR -> spotType == SpotType.SMALL || spotType == SpotType.MEDIUM;
             case BUS, TRUCK -> spotType == SpotType.LARGE;
         };
     }
 
+    /**
+     * Links this spot to its floor and the floor's free-spot index.
+     * Called by ParkingFloor.addSpot; the ordinal is the spot's bit in the index.
+     */
+    public void bindIndex(ParkingFloor floor, FreeSpotIndex index, int ordinal) {
+        this.floor = floor;
+        this.indexOrdinal = ordinal;
+        this.freeSpotIndex = index;
+        syncIndex();
+    }
+
+    /**
+     * Returns the floor this spot was added to, or null if it isn't on a floor.
+     */
+    public ParkingFloor getFloor() {
+        return floor;
+    }
+
+    /**
+     * Returns this spot's index in its parking lot, or -1 if it hasn't joined a lot.
+     * Compact ticket records store this instead of the spot ID.
+     */
+    public int getLotOrdinal() {
+        return lotOrdinal;
+    }
+
+    void assignLotOrdinal(int ordinal) {
+        this.lotOrdinal = ordinal;
+    }
+
+    /**
+     * Atomically claims this spot for a vehicle.
+     * Lock-free: a single compare-and-set from empty to the vehicle.
+     * @return true if the claim won, false if the spot was already taken
+     */
+    public boolean tryClaim(Vehicle vehicle) {
+        if (vehicle == null) {
+            throw new IllegalArgumentException("Vehicle cannot be null");
+        }
+        if (!occupant.compareAndSet(null, vehicle)) {
+            return false;
+        }
+        syncIndex();
+        return true;
+    }
+
+    /**
+     * Atomically releases this spot.
+     * @return the vehicle that was parked here, or null if the spot was already empty
+     */
+    public Vehicle release() {
+        Vehicle previous = occupant.getAndSet(null);
+        if (previous != null) {
+            syncIndex();
+        }
+        return previous;
+    }
+
     /**
      * Attempts to park a vehicle in this spot.
-     * Thread-safe operation using lock.
+     * Same as {@link #tryClaim(Vehicle)}.
      * @return true if parking was successful, false if spot was taken by another thread
      */
     public boolean parkVehicle(Vehicle vehicle) {
-        lock.lock();
-        try {
-            if (isOccupied) {
-                return false; // Spot was already taken
-            }
-            this.parkedVehicle = vehicle;
-            this.isOccupied = true;
-            return true;
-        } finally {
-            lock.unlock();
-        }
+        return tryClaim(vehicle);
     }
 
     /**
      * Removes vehicle from the spot.
-     * Thread-safe operation using lock.
+     * Same as {@link #release()}.
      */
     public void removeVehicle() {
-        lock.lock();
-        try {
-            this.parkedVehicle = null;
-            this.isOccupied = false;
-        } finally {
-            lock.unlock();
-        }
+        release();
     }
 
     public boolean isOccupied() {
-        return isOccupied;
+        return occupant.get() != null;
     }
 
     public String getId() {
@@ -74,26 +132,27 @@ public class ParkingSpot {
     }
 
     public Vehicle getParkedVehicle() {
-        lock.lock();
-        try {
-            return parkedVehicle;
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    /**
-     * Tries to acquire the lock for this spot.
-     * Used for atomic check-and-park operations.
-     */
-    public boolean tryLock() {
-        return lock.tryLock();
+        return occupant.get();
     }
 
     /**
-     * Releases the lock for this spot.
+     * Brings this spot's bit in the free-spot index in line with its state.
+     * Claims and releases can race, so the state is re-read after every bit
+     * write; whichever thread writes the bit last has seen the final state.
      */
-    public void unlock() {
-        lock.unlock();
+    private void syncIndex() {
+        FreeSpotIndex index = freeSpotIndex;
+        if (index == null) {
+            return;
+        }
+        boolean free;
+        do {
+            free = occupant.get() == null;
+            if (free) {
+                index.markFree(indexOrdinal);
+            } else {
+                index.markOccupied(indexOrdinal);
+            }
+        } while (free != (occupant.get() == null));
     }
 }
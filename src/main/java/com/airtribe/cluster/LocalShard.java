@@ -0,0 +1,58 @@
+package com.airtribe.cluster;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+
+/**
+ * A shard backed by a ParkingLot in this JVM.
+ */
+public class LocalShard implements LotShard {
+    private final ParkingLot parkingLot;
+
+    public LocalShard(ParkingLot parkingLot) {
+        if (parkingLot == null) {
+            throw new IllegalArgumentException("Parking lot cannot be null");
+        }
+        this.parkingLot = parkingLot;
+    }
+
+    @Override
+    public ParkingTicket park(Vehicle vehicle) {
+        return parkingLot.getEntryPanel().parkVehicle(vehicle, parkingLot);
+    }
+
+    @Override
+    public ParkingTicket getTicket(String ticketId) {
+        return parkingLot.getTicket(ticketId);
+    }
+
+    @Override
+    public ParkingTicket removeTicket(String ticketId) {
+        return parkingLot.removeTicket(ticketId);
+    }
+
+    @Override
+    public boolean unpark(String ticketId) {
+        ParkingTicket ticket = parkingLot.getTicket(ticketId);
+        if (ticket == null) {
+            return false;
+        }
+        return parkingLot.getExitPanel().unparkVehicleAsync(ticket, parkingLot).join();
+    }
+
+    @Override
+    public long getAvailableSpotCount() {
+        return parkingLot.getAvailableSpotCount();
+    }
+
+    @Override
+    public long getAvailableSpotCount(SpotType type) {
+        return parkingLot.getAvailableSpotCount(type);
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+}
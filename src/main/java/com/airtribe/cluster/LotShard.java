@@ -0,0 +1,51 @@
+package com.airtribe.cluster;
+
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+
+/**
+ * One parking lot as seen by a ParkingLotCluster: either a ParkingLot in
+ * this JVM (LocalShard) or one served by another process (RemoteShard).
+ * Ticket IDs here are the lot's own; the cluster adds and strips the shard
+ * prefix.
+ */
+public interface LotShard extends AutoCloseable {
+
+    /**
+     * Parks a vehicle in this lot.
+     *
+     * @return the ticket, or null if no spot was available
+     */
+    ParkingTicket park(Vehicle vehicle);
+
+    /**
+     * @return the active ticket with this ID, or null
+     */
+    ParkingTicket getTicket(String ticketId);
+
+    /**
+     * Removes a ticket from the lot's active tickets, see ParkingLot.removeTicket.
+     *
+     * @return the removed ticket, or null if it wasn't active
+     */
+    ParkingTicket removeTicket(String ticketId);
+
+    /**
+     * Runs the exit (cost, payment, spot release) for an active ticket.
+     *
+     * @return true if the vehicle exited
+     */
+    boolean unpark(String ticketId);
+
+    long getAvailableSpotCount();
+
+    long getAvailableSpotCount(SpotType type);
+
+    /**
+     * Releases whatever connects this shard to its lot. The lot itself is not affected.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,191 @@
+package com.airtribe.cluster;
+
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hosts many parking lots (shards) behind one entry point. Shards can be
+ * lots in this JVM (LocalShard) or lots served by other processes on the
+ * host (RemoteShard).
+ *
+ * Ticket ownership is partitioned by ID: every ticket the cluster hands out
+ * carries its shard's number as a prefix (see ShardIds), so getTicket,
+ * removeTicket and unpark go straight to the owning shard by array index,
+ * with no cluster-wide ticket map. Availability queries ask every shard at
+ * once on virtual threads and add up the answers.
+ */
+public class ParkingLotCluster implements AutoCloseable {
+    // Indexed by shard number; replaced (not mutated) when a shard joins
+    private volatile LotShard[] shards = new LotShard[0];
+    private final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Adds a shard and returns the shard number its tickets are prefixed with.
+     *
+     * @throws IllegalStateException if the cluster already has ShardIds.MAX_SHARDS shards
+     */
+    public synchronized int addShard(LotShard shard) {
+        if (shard == null) {
+            throw new IllegalArgumentException("Shard cannot be null");
+        }
+        LotShard[] current = shards;
+        if (current.length == ShardIds.MAX_SHARDS) {
+            throw new IllegalStateException("Cluster is limited to " + ShardIds.MAX_SHARDS + " shards");
+        }
+        LotShard[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = shard;
+        shards = updated;
+        return current.length;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Parks a vehicle in the given shard.
+     *
+     * @return the ticket, with a cluster ticket ID, or null if the lot had no spot
+     * @throws IllegalArgumentException if there is no such shard
+     */
+    public ParkingTicket park(int shard, Vehicle vehicle) {
+        LotShard[] current = shards;
+        if (shard < 0 || shard >= current.length) {
+            throw new IllegalArgumentException("No such shard: " + shard);
+        }
+        return toClusterTicket(shard, current[shard].park(vehicle));
+    }
+
+    /**
+     * Looks up an active ticket on the shard that owns it.
+     *
+     * @return the ticket, or null if it isn't active or the ID names no shard
+     */
+    public ParkingTicket getTicket(String ticketId) {
+        int shard = ShardIds.shardOf(ticketId);
+        LotShard owner = owner(shard);
+        return owner == null ? null : toClusterTicket(shard, owner.getTicket(ShardIds.localId(ticketId)));
+    }
+
+    /**
+     * Removes an active ticket from the shard that owns it; see ParkingLot.removeTicket.
+     *
+     * @return the removed ticket, or null if it wasn't active
+     */
+    public ParkingTicket removeTicket(String ticketId) {
+        int shard = ShardIds.shardOf(ticketId);
+        LotShard owner = owner(shard);
+        return owner == null ? null : toClusterTicket(shard, owner.removeTicket(ShardIds.localId(ticketId)));
+    }
+
+    /**
+     * Runs the exit for a ticket on the shard that owns it.
+     *
+     * @return true if the vehicle exited
+     */
+    public boolean unpark(String ticketId) {
+        LotShard owner = owner(ShardIds.shardOf(ticketId));
+        return owner != null && owner.unpark(ShardIds.localId(ticketId));
+    }
+
+    /**
+     * Free spots across all shards, asked of every shard in parallel.
+     */
+    public long getAvailableSpotCount() {
+        return sum(getAvailableSpotCounts(null));
+    }
+
+    /**
+     * Free spots of one type across all shards, asked of every shard in parallel.
+     */
+    public long getAvailableSpotCount(SpotType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Spot type cannot be null");
+        }
+        return sum(getAvailableSpotCounts(type));
+    }
+
+    /**
+     * Free spots per shard, indexed by shard number.
+     *
+     * @param type Spot type to count, or null for all types
+     */
+    public long[] getAvailableSpotCounts(SpotType type) {
+        LotShard[] current = shards;
+        CompletableFuture<?>[] remote = new CompletableFuture<?>[current.length];
+        long[] counts = new long[current.length];
+        // Remote shards are asked first so their round trips overlap the local counting
+        for (int i = 0; i < current.length; i++) {
+            LotShard shard = current[i];
+            if (!(shard instanceof LocalShard)) {
+                remote[i] = CompletableFuture.supplyAsync(() -> availableSpots(shard, type), fanOut);
+            }
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (remote[i] == null) {
+                counts[i] = availableSpots(current[i], type);
+            }
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (remote[i] != null) {
+                counts[i] = (Long) remote[i].join();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Closes every shard's connection and stops the fan-out executor.
+     */
+    @Override
+    public void close() {
+        fanOut.close();
+        for (LotShard shard : shards) {
+            try {
+                shard.close();
+            } catch (Exception e) {
+                System.err.println("Failed to close shard: " + e.getMessage());
+            }
+        }
+    }
+
+    private LotShard owner(int shard) {
+        LotShard[] current = shards;
+        return shard >= 0 && shard < current.length ? current[shard] : null;
+    }
+
+    private static long availableSpots(LotShard shard, SpotType type) {
+        return type == null ? shard.getAvailableSpotCount() : shard.getAvailableSpotCount(type);
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Copies a shard's ticket under its cluster ID, keeping the spot handle
+     * when the shard is local.
+     */
+    private static ParkingTicket toClusterTicket(int shard, ParkingTicket ticket) {
+        if (ticket == null) {
+            return null;
+        }
+        String clusterId = ShardIds.format(shard, ticket.getTicketId());
+        if (ticket.getSpot() != null) {
+            return new ParkingTicket(ticket.getTicketNumber(), clusterId, ticket.getVehicle(), ticket.getSpot(),
+                    ticket.getEntryTime());
+        }
+        return new ParkingTicket(clusterId, ticket.getVehicle(), ticket.getSpotId(), ticket.getSpotType(),
+                ticket.getEntryTime());
+    }
+}
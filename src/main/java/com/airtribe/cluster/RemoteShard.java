@@ -0,0 +1,145 @@
+package com.airtribe.cluster;
+
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A shard served by a ShardServer in another process on this host.
+ * Connections are pooled: a caller borrows an idle one (or opens a new one)
+ * for a request, so concurrent gates don't queue behind one socket.
+ * Tickets come back without a spot handle, since the spot lives in the
+ * other process.
+ */
+public class RemoteShard implements LotShard {
+    private final InetAddress address;
+    private final int port;
+    private final ConcurrentLinkedQueue<Connection> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * Connects to a ShardServer on the loopback address.
+     */
+    public RemoteShard(int port) {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    public RemoteShard(InetAddress address, int port) {
+        if (port <= 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        this.address = address;
+        this.port = port;
+    }
+
+    @Override
+    public ParkingTicket park(Vehicle vehicle) {
+        return ShardProtocol.decodeTicket(call(ShardProtocol.request(ShardProtocol.PARK,
+                vehicle.getLicenseNumber(), vehicle.getType().name())));
+    }
+
+    @Override
+    public ParkingTicket getTicket(String ticketId) {
+        return ShardProtocol.decodeTicket(call(ShardProtocol.request(ShardProtocol.GET, ticketId)));
+    }
+
+    @Override
+    public ParkingTicket removeTicket(String ticketId) {
+        return ShardProtocol.decodeTicket(call(ShardProtocol.request(ShardProtocol.REMOVE, ticketId)));
+    }
+
+    @Override
+    public boolean unpark(String ticketId) {
+        return call(ShardProtocol.request(ShardProtocol.UNPARK, ticketId))[0].equals(ShardProtocol.OK);
+    }
+
+    @Override
+    public long getAvailableSpotCount() {
+        return Long.parseLong(call(ShardProtocol.AVAIL)[1]);
+    }
+
+    @Override
+    public long getAvailableSpotCount(SpotType type) {
+        return Long.parseLong(call(ShardProtocol.request(ShardProtocol.AVAIL, type.name()))[1]);
+    }
+
+    private String[] call(String request) {
+        if (closed) {
+            throw new IllegalStateException("Remote shard is closed");
+        }
+        Connection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection(new Socket(address, port));
+            }
+            String response = connection.roundTrip(request);
+            if (response == null) {
+                throw new EOFException("Shard closed the connection");
+            }
+            // A connection that failed mid-request is dropped, never reused
+            idle.offer(connection);
+            if (closed) {
+                closeIdle();
+            }
+            return ShardProtocol.parseResponse(response);
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            throw new UncheckedIOException("Request to shard on port " + port + " failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeIdle();
+    }
+
+    private void closeIdle() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private static final class Connection {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final BufferedWriter out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        String roundTrip(String request) throws IOException {
+            out.write(request);
+            out.write('\n');
+            out.flush();
+            return in.readLine();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already unusable
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.airtribe.cluster;
+
+/**
+ * Cluster ticket IDs: the owning shard's number as a fixed-width prefix in
+ * front of the lot's own ticket ID, e.g. L007-PT-20261016-0042. The shard is
+ * read back from fixed character positions, so routing a ticket needs no
+ * lookup table.
+ */
+public final class ShardIds {
+    public static final int MAX_SHARDS = 1000;
+
+    private static final char SHARD_MARKER = 'L';
+    private static final int SHARD_DIGITS = 3;
+    // "L" + 3 digits + "-"
+    private static final int PREFIX_LENGTH = 1 + SHARD_DIGITS + 1;
+
+    private ShardIds() {
+    }
+
+    public static String format(int shard, String localTicketId) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (MAX_SHARDS - 1) + ": " + shard);
+        }
+        StringBuilder id = new StringBuilder(PREFIX_LENGTH + localTicketId.length());
+        id.append(SHARD_MARKER);
+        for (int divisor = 100; divisor > 0; divisor /= 10) {
+            id.append((char) ('0' + shard / divisor % 10));
+        }
+        return id.append('-').append(localTicketId).toString();
+    }
+
+    /**
+     * @return the shard a cluster ticket ID belongs to, or -1 if it has no shard prefix
+     */
+    public static int shardOf(String ticketId) {
+        if (ticketId == null || ticketId.length() <= PREFIX_LENGTH
+                || ticketId.charAt(0) != SHARD_MARKER || ticketId.charAt(PREFIX_LENGTH - 1) != '-') {
+            return -1;
+        }
+        int shard = 0;
+        for (int i = 1; i <= SHARD_DIGITS; i++) {
+            char c = ticketId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            shard = shard * 10 + (c - '0');
+        }
+        return shard;
+    }
+
+    /**
+     * Returns the lot's own ticket ID from a cluster ticket ID with a valid prefix.
+     */
+    public static String localId(String ticketId) {
+        return ticketId.substring(PREFIX_LENGTH);
+    }
+}
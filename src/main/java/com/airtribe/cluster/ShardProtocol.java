@@ -0,0 +1,135 @@
+package com.airtribe.cluster;
+
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingticket.ParkingTicket;
+
+/**
+ * Line protocol between RemoteShard and ShardServer. One request line gets
+ * one response line; fields are tab-separated.
+ * <pre>
+ * PARK    plate vehicleType   -> OK ticket | NONE
+ * GET     ticketId            -> OK ticket | NONE
+ * REMOVE  ticketId            -> OK ticket | NONE
+ * UNPARK  ticketId            -> OK | NONE
+ * AVAIL   [spotType]          -> OK count
+ * any failure                 -> ERR message
+ * </pre>
+ * A ticket is sent as ticketId, plate, vehicleType, spotId, spotType, entryTime.
+ */
+final class ShardProtocol {
+    static final String PARK = "PARK";
+    static final String GET = "GET";
+    static final String REMOVE = "REMOVE";
+    static final String UNPARK = "UNPARK";
+    static final String AVAIL = "AVAIL";
+    static final String OK = "OK";
+    static final String NONE = "NONE";
+    static final String ERR = "ERR";
+
+    private static final char SEPARATOR = '\t';
+    private static final int TICKET_FIELDS = 6;
+
+    private ShardProtocol() {
+    }
+
+    /**
+     * Serves one request line against a shard and returns the response line.
+     */
+    static String handle(LotShard shard, String request) {
+        String[] fields = request.split(String.valueOf(SEPARATOR), -1);
+        try {
+            return switch (fields[0]) {
+                case PARK -> {
+                    expectFields(fields, 3);
+                    yield ticketResponse(shard.park(new Vehicle(fields[1], VehicleType.valueOf(fields[2]))));
+                }
+                case GET -> {
+                    expectFields(fields, 2);
+                    yield ticketResponse(shard.getTicket(fields[1]));
+                }
+                case REMOVE -> {
+                    expectFields(fields, 2);
+                    yield ticketResponse(shard.removeTicket(fields[1]));
+                }
+                case UNPARK -> {
+                    expectFields(fields, 2);
+                    yield shard.unpark(fields[1]) ? OK : NONE;
+                }
+                case AVAIL -> {
+                    long available = fields.length == 1
+                            ? shard.getAvailableSpotCount()
+                            : shard.getAvailableSpotCount(SpotType.valueOf(fields[1]));
+                    yield OK + SEPARATOR + available;
+                }
+                default -> throw new IllegalArgumentException("Unknown request: " + fields[0]);
+            };
+        } catch (RuntimeException e) {
+            return ERR + SEPARATOR + clean(String.valueOf(e.getMessage()));
+        }
+    }
+
+    static String request(String command, String... arguments) {
+        StringBuilder line = new StringBuilder(command);
+        for (String argument : arguments) {
+            line.append(SEPARATOR).append(checkField(argument));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Splits a response line, throwing if the server reported an error.
+     */
+    static String[] parseResponse(String response) {
+        String[] fields = response.split(String.valueOf(SEPARATOR), -1);
+        if (fields[0].equals(ERR)) {
+            throw new IllegalArgumentException("Shard error: " + (fields.length > 1 ? fields[1] : ""));
+        }
+        return fields;
+    }
+
+    /**
+     * Decodes the ticket in an OK response, or returns null for NONE.
+     */
+    static ParkingTicket decodeTicket(String[] fields) {
+        if (fields[0].equals(NONE)) {
+            return null;
+        }
+        if (!fields[0].equals(OK) || fields.length != 1 + TICKET_FIELDS) {
+            throw new IllegalStateException("Malformed ticket response: " + String.join(" ", fields));
+        }
+        Vehicle vehicle = new Vehicle(fields[2], VehicleType.valueOf(fields[3]));
+        return new ParkingTicket(fields[1], vehicle, fields[4], SpotType.valueOf(fields[5]),
+                Long.parseLong(fields[6]));
+    }
+
+    private static String ticketResponse(ParkingTicket ticket) {
+        if (ticket == null) {
+            return NONE;
+        }
+        return OK + SEPARATOR + ticket.getTicketId()
+                + SEPARATOR + ticket.getVehicle().getLicenseNumber()
+                + SEPARATOR + ticket.getVehicle().getType()
+                + SEPARATOR + ticket.getSpotId()
+                + SEPARATOR + ticket.getSpotType()
+                + SEPARATOR + ticket.getEntryTime();
+    }
+
+    private static String checkField(String field) {
+        if (field.indexOf(SEPARATOR) >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Field cannot contain tabs or line breaks: " + field);
+        }
+        return field;
+    }
+
+    private static String clean(String message) {
+        return message.replace(SEPARATOR, ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static void expectFields(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException("Expected " + (count - 1) + " arguments for " + fields[0]);
+        }
+    }
+}
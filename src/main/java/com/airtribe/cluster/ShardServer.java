@@ -0,0 +1,125 @@
+package com.airtribe.cluster;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.coststrategy.StandardCostComputationStrategy;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingstrategy.NearestAvailableSpotStrategy;
+import com.airtribe.payment.CardPaymentProcessor;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves one parking lot to RemoteShard clients over loopback TCP, so a
+ * cluster can spread its lots over several processes on one host. Each
+ * connection is handled on its own virtual thread.
+ * Run with: java com.airtribe.cluster.ShardServer [port] [floors] [spotsPerFloor]
+ * (port 0 picks a free port); prints "READY port" once it is accepting.
+ */
+public class ShardServer implements AutoCloseable {
+    private final LotShard shard;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Binds to the loopback address; call start() to begin accepting.
+     *
+     * @param port Port to listen on, or 0 for any free port
+     */
+    public ShardServer(ParkingLot parkingLot, int port) throws IOException {
+        this.shard = new LocalShard(parkingLot);
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void start() {
+        executor.submit(this::acceptLoop);
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.submit(() -> serve(socket));
+            } catch (SocketException e) {
+                // Closed by close()
+                return;
+            } catch (IOException e) {
+                System.err.println("Shard server accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String request;
+            while ((request = in.readLine()) != null) {
+                out.write(ShardProtocol.handle(shard, request));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up beyond the socket
+        }
+    }
+
+    /**
+     * Stops accepting and closes open connections.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds the lot a shard process serves: {@code floors} floors F0, F1, ...
+     * of {@code spotsPerFloor} spots each, spot types assigned round-robin.
+     */
+    public static ParkingLot buildLot(int floors, int spotsPerFloor) {
+        ParkingLot lot = new ParkingLot(new NearestAvailableSpotStrategy(), new CardPaymentProcessor(),
+                new StandardCostComputationStrategy());
+        for (int f = 0; f < floors; f++) {
+            ParkingFloor floor = new ParkingFloor("F" + f);
+            for (int s = 0; s < spotsPerFloor; s++) {
+                floor.addSpot(new ParkingSpot("F" + f + "-S" + s, SpotType.values()[s % SpotType.values().length]));
+            }
+            lot.addFloor(floor);
+        }
+        return lot;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int floors = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int spotsPerFloor = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        ShardServer server = new ShardServer(buildLot(floors, spotsPerFloor), port);
+        server.start();
+        System.out.println("READY " + server.getPort());
+        System.out.flush();
+        // Panel output would only fill the launcher's pipe
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        Thread.currentThread().join();
+    }
+}
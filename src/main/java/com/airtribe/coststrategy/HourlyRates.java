@@ -0,0 +1,61 @@
+package com.airtribe.coststrategy;
+
+import com.airtribe.SpotType;
+import com.airtribe.VehicleType;
+
+/**
+ * Standard hourly rates: the vehicle's base rate times the spot multiplier,
+ * precomputed into a dense [VehicleType][SpotType] table. Tickets look their
+ * rate up once at entry, so costing an exit is plain arithmetic.
+ */
+public final class HourlyRates {
+
+    // Base rates per hour for different vehicle types
+    private static final double MOTORCYCLE_BASE_RATE = 5.0;
+    private static final double CAR_BASE_RATE = 10.0;
+    private static final double BUS_BASE_RATE = 25.0;
+    private static final double TRUCK_BASE_RATE = 20.0;
+
+    // Multipliers for different spot types
+    private static final double SMALL_SPOT_MULTIPLIER = 1.0;
+    private static final double MEDIUM_SPOT_MULTIPLIER = 1.3;
+    private static final double LARGE_SPOT_MULTIPLIER = 1.5;
+
+    private static final double[][] RATES = new double[VehicleType.values().length][SpotType.values().length];
+
+    static {
+        for (VehicleType vehicleType : VehicleType.values()) {
+            for (SpotType spotType : SpotType.values()) {
+                RATES[vehicleType.ordinal()][spotType.ordinal()] =
+                        getBaseRateForVehicle(vehicleType) * getSpotMultiplier(spotType);
+            }
+        }
+    }
+
+    private HourlyRates() {
+    }
+
+    /**
+     * Returns the hourly rate for a vehicle type parked in a spot type.
+     */
+    public static double of(VehicleType vehicleType, SpotType spotType) {
+        return RATES[vehicleType.ordinal()][spotType.ordinal()];
+    }
+
+    private static double getBaseRateForVehicle(VehicleType vehicleType) {
+        return switch (vehicleType) {
+            case MOTORCYCLE -> MOTORCYCLE_BASE_RATE;
+            case CAR -> CAR_BASE_RATE;
+            case BUS -> BUS_BASE_RATE;
+            case TRUCK -> TRUCK_BASE_RATE;
+        };
+    }
+
+    private static double getSpotMultiplier(SpotType spotType) {
+        return switch (spotType) {
+            case SMALL -> SMALL_SPOT_MULTIPLIER;
+            case MEDIUM -> MEDIUM_SPOT_MULTIPLIER;
+            case LARGE -> LARGE_SPOT_MULTIPLIER;
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.airtribe.coststrategy;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingticket.ParkingTicket;
+
+/**
+ * Dynamic pricing: scales the cost from a base strategy by how full the
+ * lot is and how fast vehicles are arriving.
+ *
+ * Occupancy is the higher of the ticket's floor and the whole lot, read
+ * from the free-spot counters the floors maintain (no spot is scanned).
+ * Below 50% occupancy the price is discounted, down to 0.8x when empty;
+ * above 85% it surges, up to 1.5x when full. The arrival rate over the last
+ * minute, sampled lock-free by the lot's EntryPanel, adds up to 25% more at
+ * or above the peak rate. The combined multiplier is capped at 2x.
+ *
+ * Pricing only reads counters, so it adds no locking to the exit path.
+ */
+public class OccupancyCostComputationStrategy implements CostComputationStrategy {
+
+    private static final double DISCOUNT_BELOW_OCCUPANCY = 0.5;
+    private static final double EMPTY_MULTIPLIER = 0.8;
+    private static final double SURGE_ABOVE_OCCUPANCY = 0.85;
+    private static final double FULL_MULTIPLIER = 1.5;
+    private static final double MAX_ARRIVAL_SURGE = 0.25;
+    private static final double MAX_MULTIPLIER = 2.0;
+
+    private final CostComputationStrategy baseStrategy;
+    private final double peakArrivalsPerMinute;
+
+    /**
+     * Standard pricing, surging fully at 60 arrivals per minute.
+     */
+    public OccupancyCostComputationStrategy() {
+        this(new StandardCostComputationStrategy(), 60);
+    }
+
+    /**
+     * @param baseStrategy Strategy computing the cost before the multiplier
+     * @param peakArrivalsPerMinute Arrival rate at which the arrival surge is at its maximum
+     */
+    public OccupancyCostComputationStrategy(CostComputationStrategy baseStrategy, double peakArrivalsPerMinute) {
+        if (baseStrategy == null) {
+            throw new IllegalArgumentException("Base cost strategy cannot be null");
+        }
+        if (!(peakArrivalsPerMinute > 0)) {
+            throw new IllegalArgumentException("Peak arrival rate must be positive: " + peakArrivalsPerMinute);
+        }
+        this.baseStrategy = baseStrategy;
+        this.peakArrivalsPerMinute = peakArrivalsPerMinute;
+    }
+
+    @Override
+    public double computeCost(ParkingTicket ticket) {
+        double baseCost = baseStrategy.computeCost(ticket);
+
+        // Tickets without a floor (and lot) behind their spot pay the base price
+        ParkingSpot spot = ticket.getSpot();
+        ParkingFloor floor = spot == null ? null : spot.getFloor();
+        ParkingLot lot = floor == null ? null : floor.getParkingLot();
+        if (lot == null) {
+            return baseCost;
+        }
+
+        double occupancy = Math.max(occupancy(floor.getSpotCount(), floor.getAvailableSpotCount()),
+                occupancy(lot.getSpotCount(), lot.getAvailableSpotCount()));
+        double arrivalsPerMinute = lot.getEntryPanel().getArrivalRate().ratePerMinute(System.currentTimeMillis());
+        return Math.round(baseCost * multiplier(occupancy, arrivalsPerMinute) * 100.0) / 100.0;
+    }
+
+    /**
+     * The price multiplier for a given occupancy (0 to 1) and arrival rate.
+     */
+    public double multiplier(double occupancy, double arrivalsPerMinute) {
+        double occupancyMultiplier;
+        if (occupancy < DISCOUNT_BELOW_OCCUPANCY) {
+            occupancyMultiplier = EMPTY_MULTIPLIER
+                    + (1.0 - EMPTY_MULTIPLIER) * occupancy / DISCOUNT_BELOW_OCCUPANCY;
+        } else if (occupancy > SURGE_ABOVE_OCCUPANCY) {
+            occupancyMultiplier = 1.0 + (FULL_MULTIPLIER - 1.0)
+                    * (Math.min(occupancy, 1.0) - SURGE_ABOVE_OCCUPANCY) / (1.0 - SURGE_ABOVE_OCCUPANCY);
+        } else {
+            occupancyMultiplier = 1.0;
+        }
+        double arrivalMultiplier = 1.0 + MAX_ARRIVAL_SURGE * Math.min(1.0, arrivalsPerMinute / peakArrivalsPerMinute);
+        return Math.min(MAX_MULTIPLIER, occupancyMultiplier * arrivalMultiplier);
+    }
+
+    private static double occupancy(long spots, long available) {
+        // The counters are read separately, so clamp any momentary skew
+        return spots == 0 ? 0.0 : Math.max(0.0, Math.min(1.0, 1.0 - (double) available / spots));
+    }
+}
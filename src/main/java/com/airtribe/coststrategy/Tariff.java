@@ -0,0 +1,214 @@
+package com.airtribe.coststrategy;
+
+import com.airtribe.SpotType;
+import com.airtribe.VehicleType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled, immutable tariff.
+ *
+ * The week is split into 15-minute buckets (Monday 00:00 local time is
+ * bucket 0). Compiling a rule set resolves every rule into an hourly rate
+ * per bucket, vehicle type and spot type, then precomputes the cumulative
+ * cost from the start of the week to each bucket and the capped cost of
+ * each whole day. Costing a stay of any length is then a handful of table
+ * reads, however many rules the tariff was built from.
+ *
+ * Rules are read by TariffParser; see TariffCostComputationStrategy for the
+ * file format.
+ */
+public final class Tariff {
+    static final int BUCKET_MINUTES = 15;
+    static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+    static final int DAYS_PER_WEEK = 7;
+    static final int BUCKETS_PER_WEEK = BUCKETS_PER_DAY * DAYS_PER_WEEK;
+
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+    private static final long BUCKET_MILLIS = BUCKET_MINUTES * 60 * 1000L;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    private static final long WEEK_MILLIS = DAYS_PER_WEEK * DAY_MILLIS;
+    // 1970-01-01 was a Thursday; shifting by three days puts Monday 00:00 at zero
+    private static final long MONDAY_SHIFT_MILLIS = 3 * DAY_MILLIS;
+    private static final int SPOT_TYPES = SpotType.values().length;
+    static final int CELLS = VehicleType.values().length * SPOT_TYPES;
+
+    private final ZoneRules zoneRules;
+    // Offset in millis if the zone never changes offset, else Long.MIN_VALUE
+    private final long fixedOffsetMillis;
+    private final long graceMillis;
+    private final long minimumMillis;
+    // [cell][bucket]: hourly rate in effect during the bucket
+    private final double[][] bucketRates;
+    // [cell][bucket]: cost from Monday 00:00 to the start of the bucket; [cell][BUCKETS_PER_WEEK] is a full week
+    private final double[][] cumulative;
+    // [cell]: most charged for one calendar day
+    private final double[] dailyCaps;
+    // [cell][day]: capped cost of the whole days from Monday up to the day; [cell][7] is a full week
+    private final double[][] cappedDays;
+    private final Map<String, Double> floorMultipliers;
+    private final int ruleCount;
+
+    /**
+     * @param bucketRates [cell][bucket] hourly rates, cell = vehicleType * SPOT_TYPES + spotType
+     * @param dailyCaps [cell] daily caps, Double.POSITIVE_INFINITY for none
+     */
+    Tariff(ZoneId zone, double[][] bucketRates, double[] dailyCaps, long graceMillis, long minimumMillis,
+           Map<String, Double> floorMultipliers, int ruleCount) {
+        this.zoneRules = zone.getRules();
+        this.fixedOffsetMillis = zoneRules.isFixedOffset()
+                ? zoneRules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L : Long.MIN_VALUE;
+        this.bucketRates = bucketRates;
+        this.dailyCaps = dailyCaps;
+        this.graceMillis = graceMillis;
+        this.minimumMillis = minimumMillis;
+        this.floorMultipliers = Map.copyOf(floorMultipliers);
+        this.ruleCount = ruleCount;
+
+        this.cumulative = new double[CELLS][BUCKETS_PER_WEEK + 1];
+        this.cappedDays = new double[CELLS][DAYS_PER_WEEK + 1];
+        double bucketHours = BUCKET_MINUTES / 60.0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            for (int bucket = 0; bucket < BUCKETS_PER_WEEK; bucket++) {
+                cumulative[cell][bucket + 1] = cumulative[cell][bucket] + bucketRates[cell][bucket] * bucketHours;
+            }
+            for (int day = 0; day < DAYS_PER_WEEK; day++) {
+                double dayCost = cumulative[cell][(day + 1) * BUCKETS_PER_DAY] - cumulative[cell][day * BUCKETS_PER_DAY];
+                cappedDays[cell][day + 1] = cappedDays[cell][day] + Math.min(dailyCaps[cell], dayCost);
+            }
+        }
+    }
+
+    /**
+     * The tariff StandardCostComputationStrategy charges: HourlyRates at all
+     * times, a 30-minute minimum, no grace period and no caps.
+     */
+    public static Tariff standard() {
+        return TariffParser.parse(List.of(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Reads and compiles a tariff file, in the system time zone.
+     *
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public static Tariff load(Path file) throws IOException {
+        return parse(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compiles tariff rules, one per line, in the system time zone.
+     *
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public static Tariff parse(List<String> lines) {
+        return TariffParser.parse(lines, ZoneId.systemDefault());
+    }
+
+    /**
+     * Computes the charge for a stay.
+     *
+     * @param floorId Floor of the spot, for per-floor multipliers; may be null
+     * @return the charge rounded to 2 decimal places
+     */
+    public double cost(VehicleType vehicleType, SpotType spotType, String floorId, long entryMillis, long exitMillis) {
+        long duration = exitMillis - entryMillis;
+        if (duration <= graceMillis) {
+            return 0.0;
+        }
+        if (duration < minimumMillis) {
+            exitMillis = entryMillis + minimumMillis;
+        }
+
+        int cell = vehicleType.ordinal() * SPOT_TYPES + spotType.ordinal();
+        long entry = toLocal(entryMillis) + MONDAY_SHIFT_MILLIS;
+        long exit = toLocal(exitMillis) + MONDAY_SHIFT_MILLIS;
+        long entryDay = Math.floorDiv(entry, DAY_MILLIS);
+        long exitDay = Math.floorDiv(exit, DAY_MILLIS);
+        double cap = dailyCaps[cell];
+
+        double total;
+        if (entryDay == exitDay) {
+            total = Math.min(cap, charge(cell, entry, exit));
+        } else {
+            // Partial first and last days are capped on their own; whole days in between come from the table
+            total = Math.min(cap, charge(cell, entry, (entryDay + 1) * DAY_MILLIS))
+                    + wholeDays(cell, entryDay + 1, exitDay)
+                    + Math.min(cap, charge(cell, exitDay * DAY_MILLIS, exit));
+        }
+
+        if (floorId != null && !floorMultipliers.isEmpty()) {
+            Double multiplier = floorMultipliers.get(floorId);
+            if (multiplier != null) {
+                total *= multiplier;
+            }
+        }
+        return Math.round(total * 100.0) / 100.0;
+    }
+
+    /**
+     * Returns the hourly rate in effect at the given time.
+     */
+    public double rateAt(VehicleType vehicleType, SpotType spotType, long epochMillis) {
+        long local = Math.floorMod(toLocal(epochMillis) + MONDAY_SHIFT_MILLIS, WEEK_MILLIS);
+        return bucketRates[vehicleType.ordinal() * SPOT_TYPES + spotType.ordinal()][(int) (local / BUCKET_MILLIS)];
+    }
+
+    /**
+     * Number of rules this tariff was compiled from.
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Uncapped cost between two shifted local times.
+     */
+    private double charge(int cell, long from, long to) {
+        long fromWeek = Math.floorDiv(from, WEEK_MILLIS);
+        long toWeek = Math.floorDiv(to, WEEK_MILLIS);
+        return (toWeek - fromWeek) * cumulative[cell][BUCKETS_PER_WEEK]
+                + withinWeek(cell, to - toWeek * WEEK_MILLIS)
+                - withinWeek(cell, from - fromWeek * WEEK_MILLIS);
+    }
+
+    private double withinWeek(int cell, long offset) {
+        int bucket = (int) (offset / BUCKET_MILLIS);
+        return cumulative[cell][bucket] + bucketRates[cell][bucket] * (offset - bucket * BUCKET_MILLIS) / HOUR_MILLIS;
+    }
+
+    /**
+     * Capped cost of the whole days in [fromDay, toDay).
+     */
+    private double wholeDays(int cell, long fromDay, long toDay) {
+        if (fromDay >= toDay) {
+            return 0.0;
+        }
+        long fromWeek = Math.floorDiv(fromDay, DAYS_PER_WEEK);
+        long toWeek = Math.floorDiv(toDay, DAYS_PER_WEEK);
+        return (toWeek - fromWeek) * cappedDays[cell][DAYS_PER_WEEK]
+                + cappedDays[cell][(int) (toDay - toWeek * DAYS_PER_WEEK)]
+                - cappedDays[cell][(int) (fromDay - fromWeek * DAYS_PER_WEEK)];
+    }
+
+    private long toLocal(long epochMillis) {
+        if (fixedOffsetMillis != Long.MIN_VALUE) {
+            return epochMillis + fixedOffsetMillis;
+        }
+        return epochMillis + zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+    }
+
+    @Override
+    public String toString() {
+        return "Tariff[" + ruleCount + " rules, grace " + graceMillis / 60_000 + " min, minimum "
+                + minimumMillis / 60_000 + " min, " + floorMultipliers.size() + " floor multipliers]";
+    }
+}
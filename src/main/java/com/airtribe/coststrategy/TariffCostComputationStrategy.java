@@ -0,0 +1,174 @@
+package com.airtribe.coststrategy;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * Cost strategy driven by a Tariff compiled from a rules file, so pricing
+ * changes without a new strategy class or a restart.
+ *
+ * One rule per line, '#' starts a comment, later rules override earlier ones:
+ * <pre>
+ * rate    &lt;vehicle|*&gt; &lt;spot|*&gt; &lt;hourly rate&gt;                  # default: HourlyRates
+ * window  &lt;days&gt; &lt;HH:mm-HH:mm&gt; &lt;vehicle|*&gt; &lt;spot|*&gt; &lt;multiplier&gt;
+ * cap     &lt;vehicle|*&gt; &lt;spot|*&gt; &lt;max per calendar day&gt;
+ * grace   &lt;minutes&gt;                                          # free stays up to this long
+ * minimum &lt;minutes&gt;                                          # default: 30
+ * floor   &lt;floorId&gt; &lt;multiplier&gt;
+ * </pre>
+ * days is ALL, WEEKDAY, WEEKEND or a list such as MON-FRI,SUN; times are in
+ * 15-minute steps and a window may run past midnight (22:00-06:00).
+ *
+ * The compiled tariff is swapped in with a single volatile write, so exits
+ * in flight finish on the old tariff and new ones pick up the new one.
+ *
+ * Changes are detected by the file's size and checksum, not its modification
+ * time, which is too coarse on some file systems to tell two quick edits
+ * apart. Replace the rules file atomically (write a temporary file in the
+ * same directory, then rename it over the old one): a reload that reads a
+ * file still being written sees a half-written rule set.
+ */
+public class TariffCostComputationStrategy implements CostComputationStrategy, AutoCloseable {
+    private final Path tariffFile;
+    private volatile Tariff tariff;
+    private Fingerprint loaded;
+    private volatile Thread watcher;
+
+    public TariffCostComputationStrategy(Tariff tariff) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("Tariff cannot be null");
+        }
+        this.tariffFile = null;
+        this.tariff = tariff;
+    }
+
+    /**
+     * Loads the tariff from a local rules file; reload() and watch() re-read it.
+     *
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public TariffCostComputationStrategy(Path tariffFile) throws IOException {
+        this.tariffFile = tariffFile;
+        byte[] content = Files.readAllBytes(tariffFile);
+        this.loaded = Fingerprint.of(content);
+        this.tariff = compile(content);
+    }
+
+    @Override
+    public double computeCost(ParkingTicket ticket) {
+        if (ticket == null) {
+            throw new IllegalArgumentException("Parking ticket cannot be null");
+        }
+        ParkingSpot spot = ticket.getSpot();
+        ParkingFloor floor = spot == null ? null : spot.getFloor();
+        return tariff.cost(ticket.getVehicle().getType(), ticket.getSpotType(),
+                floor == null ? null : floor.getFloorId(), ticket.getEntryTime(), System.currentTimeMillis());
+    }
+
+    public Tariff getTariff() {
+        return tariff;
+    }
+
+    /**
+     * Switches to a new tariff immediately.
+     */
+    public void setTariff(Tariff tariff) {
+        if (tariff == null) {
+            throw new IllegalArgumentException("Tariff cannot be null");
+        }
+        this.tariff = tariff;
+    }
+
+    /**
+     * Re-reads the rules file and swaps in a new tariff if its content changed
+     * since it was last loaded. A file with errors is rejected and the current
+     * tariff stays in place.
+     *
+     * @return true if a new tariff was swapped in
+     * @throws IllegalStateException if this strategy wasn't created from a file
+     * @throws IllegalArgumentException if a rule is malformed
+     */
+    public synchronized boolean reload() throws IOException {
+        if (tariffFile == null) {
+            throw new IllegalStateException("Tariff was not loaded from a file");
+        }
+        // Fingerprint and compile the same bytes, so a change landing mid-read is seen on the next poll
+        byte[] content = Files.readAllBytes(tariffFile);
+        Fingerprint fingerprint = Fingerprint.of(content);
+        if (fingerprint.equals(loaded)) {
+            return false;
+        }
+        // A broken file is reported once, not again on every poll until it changes
+        loaded = fingerprint;
+        // Compile first, swap second: costing never sees a half-built tariff
+        tariff = compile(content);
+        return true;
+    }
+
+    private static Tariff compile(byte[] content) {
+        return Tariff.parse(new String(content, StandardCharsets.UTF_8).lines().toList());
+    }
+
+    /**
+     * Starts a background thread that checks the rules file for changes
+     * every intervalMillis and reloads it.
+     */
+    public synchronized TariffCostComputationStrategy watch(long intervalMillis) {
+        if (tariffFile == null) {
+            throw new IllegalStateException("Tariff was not loaded from a file");
+        }
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + intervalMillis);
+        }
+        if (watcher != null) {
+            return this;
+        }
+        Thread thread = new Thread(() -> watchLoop(intervalMillis), "tariff-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        watcher = thread;
+        return this;
+    }
+
+    private void watchLoop(long intervalMillis) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(intervalMillis);
+                if (reload()) {
+                    System.out.println("Tariff reloaded from " + tariffFile + ": " + tariff);
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException | IllegalArgumentException e) {
+                // Keep charging with the tariff already in place
+                System.err.println("Tariff reload failed, keeping current tariff: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops watching the rules file.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    private record Fingerprint(int size, long checksum) {
+        static Fingerprint of(byte[] content) {
+            CRC32C crc = new CRC32C();
+            crc.update(content);
+            return new Fingerprint(content.length, crc.getValue());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.airtribe.coststrategy;
+
+import com.airtribe.SpotType;
+import com.airtribe.VehicleType;
+
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Parses tariff rules (see TariffCostComputationStrategy for the format)
+ * and compiles them into a Tariff. Rules apply in file order, so a later
+ * rule overrides an earlier one wherever they overlap.
+ */
+final class TariffParser {
+    private static final String WILDCARD = "*";
+    private static final int DEFAULT_MINIMUM_MINUTES = 30;
+
+    private final double[] baseRates = new double[Tariff.CELLS];
+    // [cell][bucket] multiplier set by the last matching window rule
+    private final double[][] multipliers = new double[Tariff.CELLS][Tariff.BUCKETS_PER_WEEK];
+    private final double[] dailyCaps = new double[Tariff.CELLS];
+    private final Map<String, Double> floorMultipliers = new HashMap<>();
+    private long graceMillis;
+    private long minimumMillis = DEFAULT_MINIMUM_MINUTES * 60_000L;
+    private int ruleCount;
+
+    private TariffParser() {
+        for (VehicleType vehicleType : VehicleType.values()) {
+            for (SpotType spotType : SpotType.values()) {
+                baseRates[cell(vehicleType, spotType)] = HourlyRates.of(vehicleType, spotType);
+            }
+        }
+        for (double[] cellMultipliers : multipliers) {
+            Arrays.fill(cellMultipliers, 1.0);
+        }
+        Arrays.fill(dailyCaps, Double.POSITIVE_INFINITY);
+    }
+
+    static Tariff parse(List<String> lines, ZoneId zone) {
+        TariffParser parser = new TariffParser();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                parser.apply(line.split("\\s+"));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Tariff line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+            parser.ruleCount++;
+        }
+        return parser.compile(zone);
+    }
+
+    private void apply(String[] rule) {
+        switch (rule[0].toLowerCase(Locale.ROOT)) {
+            case "rate" -> {
+                expectArgs(rule, 3, "rate <vehicle|*> <spot|*> <hourly rate>");
+                double rate = nonNegative(rule[3]);
+                forEachCell(rule[1], rule[2], cell -> baseRates[cell] = rate);
+            }
+            case "window" -> {
+                expectArgs(rule, 5, "window <days> <HH:mm-HH:mm> <vehicle|*> <spot|*> <multiplier>");
+                boolean[] days = parseDays(rule[1]);
+                int[] range = parseTimeRange(rule[2]);
+                double multiplier = nonNegative(rule[5]);
+                forEachCell(rule[3], rule[4], cell -> applyWindow(cell, days, range[0], range[1], multiplier));
+            }
+            case "cap" -> {
+                expectArgs(rule, 3, "cap <vehicle|*> <spot|*> <daily cap>");
+                double cap = nonNegative(rule[3]);
+                forEachCell(rule[1], rule[2], cell -> dailyCaps[cell] = cap);
+            }
+            case "grace" -> {
+                expectArgs(rule, 1, "grace <minutes>");
+                graceMillis = (long) (nonNegative(rule[1]) * 60_000);
+            }
+            case "minimum" -> {
+                expectArgs(rule, 1, "minimum <minutes>");
+                minimumMillis = (long) (nonNegative(rule[1]) * 60_000);
+            }
+            case "floor" -> {
+                expectArgs(rule, 2, "floor <floorId> <multiplier>");
+                floorMultipliers.put(rule[1], nonNegative(rule[2]));
+            }
+            default -> throw new IllegalArgumentException("Unknown rule: " + rule[0]);
+        }
+    }
+
+    /**
+     * Sets the multiplier for every bucket the window covers, on each
+     * selected day. A window ending at or before its start runs past
+     * midnight into the next day.
+     */
+    private void applyWindow(int cell, boolean[] days, int startBucket, int endBucket, double multiplier) {
+        int length = endBucket > startBucket
+                ? endBucket - startBucket
+                : Tariff.BUCKETS_PER_DAY - startBucket + endBucket;
+        for (int day = 0; day < Tariff.DAYS_PER_WEEK; day++) {
+            if (!days[day]) {
+                continue;
+            }
+            int first = day * Tariff.BUCKETS_PER_DAY + startBucket;
+            for (int i = 0; i < length; i++) {
+                multipliers[cell][(first + i) % Tariff.BUCKETS_PER_WEEK] = multiplier;
+            }
+        }
+    }
+
+    private Tariff compile(ZoneId zone) {
+        double[][] bucketRates = new double[Tariff.CELLS][Tariff.BUCKETS_PER_WEEK];
+        for (int cell = 0; cell < Tariff.CELLS; cell++) {
+            for (int bucket = 0; bucket < Tariff.BUCKETS_PER_WEEK; bucket++) {
+                bucketRates[cell][bucket] = baseRates[cell] * multipliers[cell][bucket];
+            }
+        }
+        return new Tariff(zone, bucketRates, dailyCaps.clone(), graceMillis, minimumMillis,
+                floorMultipliers, ruleCount);
+    }
+
+    private static void forEachCell(String vehicle, String spot, IntConsumer action) {
+        // Reject unknown types instead of silently matching nothing
+        if (!vehicle.equals(WILDCARD)) {
+            VehicleType.valueOf(vehicle.toUpperCase(Locale.ROOT));
+        }
+        if (!spot.equals(WILDCARD)) {
+            SpotType.valueOf(spot.toUpperCase(Locale.ROOT));
+        }
+        for (VehicleType vehicleType : VehicleType.values()) {
+            if (!matches(vehicle, vehicleType.name())) {
+                continue;
+            }
+            for (SpotType spotType : SpotType.values()) {
+                if (matches(spot, spotType.name())) {
+                    action.accept(cell(vehicleType, spotType));
+                }
+            }
+        }
+    }
+
+    private static boolean matches(String pattern, String name) {
+        return pattern.equals(WILDCARD) || pattern.equalsIgnoreCase(name);
+    }
+
+    private static int cell(VehicleType vehicleType, SpotType spotType) {
+        return vehicleType.ordinal() * SpotType.values().length + spotType.ordinal();
+    }
+
+    /**
+     * Parses ALL, WEEKDAY, WEEKEND, or a comma-separated list of days and
+     * day ranges such as MON,WED or MON-FRI. Index 0 is Monday.
+     */
+    private static boolean[] parseDays(String spec) {
+        boolean[] days = new boolean[Tariff.DAYS_PER_WEEK];
+        for (String part : spec.toUpperCase(Locale.ROOT).split(",")) {
+            switch (part) {
+                case "ALL" -> Arrays.fill(days, true);
+                case "WEEKDAY", "WEEKDAYS" -> Arrays.fill(days, 0, 5, true);
+                case "WEEKEND", "WEEKENDS" -> Arrays.fill(days, 5, 7, true);
+                default -> {
+                    int dash = part.indexOf('-');
+                    int from = parseDay(dash < 0 ? part : part.substring(0, dash));
+                    int to = dash < 0 ? from : parseDay(part.substring(dash + 1));
+                    for (int day = from; ; day = (day + 1) % Tariff.DAYS_PER_WEEK) {
+                        days[day] = true;
+                        if (day == to) {
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return days;
+    }
+
+    private static int parseDay(String name) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (name.length() >= 3 && day.name().startsWith(name)) {
+                return day.ordinal();
+            }
+        }
+        throw new IllegalArgumentException("Unknown day: " + name);
+    }
+
+    /**
+     * Parses HH:mm-HH:mm into start and end buckets of the day.
+     */
+    private static int[] parseTimeRange(String spec) {
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            throw new IllegalArgumentException("Expected HH:mm-HH:mm, got " + spec);
+        }
+        int start = parseTime(spec.substring(0, dash));
+        int end = parseTime(spec.substring(dash + 1));
+        if (start == Tariff.BUCKETS_PER_DAY) {
+            throw new IllegalArgumentException("A window cannot start at 24:00: " + spec);
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("Empty time window: " + spec);
+        }
+        return new int[] {start, end};
+    }
+
+    private static int parseTime(String time) {
+        int colon = time.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected HH:mm, got " + time);
+        }
+        int hours;
+        int minute;
+        try {
+            hours = Integer.parseInt(time.substring(0, colon));
+            minute = Integer.parseInt(time.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected HH:mm, got " + time);
+        }
+        // Check each field on its own, so a typo like 10:75 isn't read as 11:15
+        if (hours < 0 || hours > 24 || minute < 0 || minute >= 60 || (hours == 24 && minute != 0)) {
+            throw new IllegalArgumentException("Not a valid time of day (00:00 to 24:00): " + time);
+        }
+        int minutes = hours * 60 + minute;
+        if (minutes % Tariff.BUCKET_MINUTES != 0) {
+            throw new IllegalArgumentException("Times must be between 00:00 and 24:00 in steps of "
+                    + Tariff.BUCKET_MINUTES + " minutes: " + time);
+        }
+        return minutes / Tariff.BUCKET_MINUTES;
+    }
+
+    private static double nonNegative(String value) {
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+        if (!(parsed >= 0) || Double.isInfinite(parsed)) {
+            throw new IllegalArgumentException("Expected a non-negative number: " + value);
+        }
+        return parsed;
+    }
+
+    private static void expectArgs(String[] rule, int count, String usage) {
+        if (rule.length != count + 1) {
+            throw new IllegalArgumentException("Expected: " + usage);
+        }
+    }
+}
@@ -1,5 +1,16 @@
-package com.airtribe.displaypanel;
-
-abstract class DisplayPanel {
-    public abstract void display();
-}
+package com.airtribe.displaypanel;
+
+abstract class DisplayPanel {
+    // Output goes through the renderer so callers never block on console I/O
+    protected final DisplayRenderer renderer;
+
+    protected DisplayPanel() {
+        this(DisplayRenderer.getDefault());
+    }
+
+    protected DisplayPanel(DisplayRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    public abstract void display();
+}
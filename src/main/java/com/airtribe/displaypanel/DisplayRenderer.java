@@ -0,0 +1,165 @@
+package com.airtribe.displaypanel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders display panel output on a background thread.
+ * Panels publish messages to a bounded queue with a non-blocking offer, so
+ * parking and unparking never wait on console I/O. The renderer drains the
+ * queue in batches and writes each batch with a single print. Floor
+ * availability is coalesced: only the newest status per floor is rendered.
+ * If the queue is full the update is dropped and counted.
+ */
+public class DisplayRenderer {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final long SHUTDOWN_FLUSH_MILLIS = 2000;
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+    private final BlockingQueue<Object> queue;
+    // Newest pending status per floor; a FloorUpdate token in the queue marks it for rendering
+    private final Map<String, String> latestFloorStatus = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private record FloorUpdate(String floorId) {
+    }
+
+    private static final class DefaultHolder {
+        private static final DisplayRenderer INSTANCE = new DisplayRenderer(DEFAULT_CAPACITY);
+
+        static {
+            // Don't lose the last few messages when the JVM exits
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> INSTANCE.close(), "display-renderer-shutdown"));
+        }
+    }
+
+    /**
+     * Returns the renderer shared by panels that are not given one explicitly.
+     */
+    public static DisplayRenderer getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public DisplayRenderer(int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::renderLoop, "display-renderer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues a message for display. Never blocks; drops the message if the queue is full.
+     */
+    public void publish(String message) {
+        if (!queue.offer(message)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues a floor's availability status. Replaces any status for the same
+     * floor that has not been rendered yet.
+     */
+    public void publishFloorStatus(String floorId, String status) {
+        if (latestFloorStatus.put(floorId, status) == null) {
+            // First pending status for this floor: queue the token that renders it
+            if (!queue.offer(new FloorUpdate(floorId))) {
+                latestFloorStatus.remove(floorId);
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Blocks until everything published before this call has been rendered,
+     * waiting at most a few seconds. Returns at once if the renderer is closed.
+     *
+     * @return true if everything was rendered, false if the renderer is
+     *         closed or didn't catch up in time
+     */
+    public boolean flush() throws InterruptedException {
+        if (!running) {
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_TIMEOUT_MILLIS);
+        CountDownLatch rendered = new CountDownLatch(1);
+        return queue.offer(rendered, FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                && rendered.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Renders what is still queued (waiting at most a couple of seconds) and
+     * stops the background thread.
+     */
+    public void close() {
+        try {
+            CountDownLatch rendered = new CountDownLatch(1);
+            if (queue.offer(rendered, SHUTDOWN_FLUSH_MILLIS, TimeUnit.MILLISECONDS)) {
+                rendered.await(SHUTDOWN_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+        worker.interrupt();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void renderLoop() {
+        List<Object> batch = new ArrayList<>();
+        StringBuilder output = new StringBuilder();
+        long reportedDrops = 0;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch);
+
+            List<CountDownLatch> flushed = new ArrayList<>();
+            for (Object event : batch) {
+                if (event instanceof String message) {
+                    output.append(message).append(System.lineSeparator());
+                } else if (event instanceof FloorUpdate update) {
+                    String status = latestFloorStatus.remove(update.floorId());
+                    if (status != null) {
+                        output.append(status).append(System.lineSeparator());
+                    }
+                } else if (event instanceof CountDownLatch latch) {
+                    flushed.add(latch);
+                }
+            }
+
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                output.append("Display: ").append(drops - reportedDrops)
+                        .append(" update(s) dropped, display queue full").append(System.lineSeparator());
+                reportedDrops = drops;
+            }
+
+            if (output.length() > 0) {
+                System.out.print(output);
+                System.out.flush();
+                output.setLength(0);
+            }
+            for (CountDownLatch latch : flushed) {
+                latch.countDown();
+            }
+            batch.clear();
+        }
+    }
+}
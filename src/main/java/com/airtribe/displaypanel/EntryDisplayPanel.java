@@ -1,34 +1,72 @@
-package com.airtribe.displaypanel;
-
-import com.airtribe.ParkingSpot;
-import com.airtribe.Vehicle;
-import com.airtribe.parkingticket.ParkingTicket;
-
-public class EntryDisplayPanel extends DisplayPanel {
-    public void displaySpotAssigned(Vehicle vehicle, ParkingSpot spot) {
-        if (spot != null) {
-            System.out.println("Display @Entry: Assigned Spot "
-                    + spot.getId() + " to vehicle "
-                    + vehicle.getLicenseNumber());
-        } else {
-            System.out.println("Display @Entry: No spot available for vehicle "
-                    + vehicle.getLicenseNumber());
-        }
-    }
-
-    @Override
-    public void display() {
-        // Optional - default display
-        System.out.println("Display @Entry: Welcome to the Parking Lot");
-    }
-
-    public void displayTicketIssued(ParkingTicket ticket) {
-        if (ticket != null) {
-            System.out.println("Display @Entry: Ticket issued with ID "
-                    + ticket.getTicketId() + " for vehicle "
-                    + ticket.getVehicle().getLicenseNumber());
-        } else {
-            System.out.println("Display @Entry: Ticket could not be issued.");
-        }
-    }
-}
+package com.airtribe.displaypanel;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.util.List;
+
+public class EntryDisplayPanel extends DisplayPanel {
+    public EntryDisplayPanel() {
+    }
+
+    public EntryDisplayPanel(DisplayRenderer renderer) {
+        super(renderer);
+    }
+
+    public void displaySpotAssigned(Vehicle vehicle, ParkingSpot spot) {
+        if (spot != null) {
+            renderer.publish("Display @Entry: Assigned Spot "
+                    + spot.getId() + " to vehicle "
+                    + vehicle.getLicenseNumber());
+        } else {
+            renderer.publish("Display @Entry: No spot available for vehicle "
+                    + vehicle.getLicenseNumber());
+        }
+    }
+
+    @Override
+    public void display() {
+        // Optional - default display
+        renderer.publish("Display @Entry: Welcome to the Parking Lot");
+    }
+
+    public void displayTicketIssued(ParkingTicket ticket) {
+        if (ticket != null) {
+            renderer.publish("Display @Entry: Ticket issued with ID "
+                    + ticket.getTicketId() + " for vehicle "
+                    + ticket.getVehicle().getLicenseNumber());
+        } else {
+            renderer.publish("Display @Entry: Ticket could not be issued.");
+        }
+    }
+
+    public void displayAlreadyParked(Vehicle vehicle) {
+        renderer.publish("Display @Entry: Vehicle " + vehicle.getLicenseNumber()
+                + " is already parked. Entry refused.");
+    }
+
+    public void displayReservationRefused(Vehicle vehicle, String reason) {
+        renderer.publish("Display @Entry: Reservation for vehicle " + vehicle.getLicenseNumber()
+                + " refused: " + reason);
+    }
+
+    /**
+     * Shows the outcome for a batch of vehicles as one display update.
+     */
+    public void displayTicketsIssued(List<Vehicle> vehicles, ParkingTicket[] tickets) {
+        int issued = 0;
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < tickets.length; i++) {
+            lines.append(System.lineSeparator()).append("- ").append(vehicles.get(i).getLicenseNumber());
+            if (tickets[i] != null) {
+                lines.append(": ticket ").append(tickets[i].getTicketId());
+                issued++;
+            } else {
+                lines.append(": no spot available");
+            }
+        }
+        renderer.publish("Display @Entry: Batch of " + tickets.length + " vehicle(s), "
+                + issued + " ticket(s) issued" + lines);
+    }
+}
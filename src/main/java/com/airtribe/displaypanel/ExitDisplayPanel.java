@@ -1,24 +1,31 @@
-package com.airtribe.displaypanel;
-
-import com.airtribe.Vehicle;
-
-public class ExitDisplayPanel extends DisplayPanel {
-    public void displayCost(Vehicle vehicle, double cost) {
-        System.out.println("Display @Exit: Vehicle " + vehicle.getLicenseNumber()
-                + " - Total cost: ₹" + cost);
-    }
-
-    public void displayError(String errorMessage) {
-        System.out.println("Display @Exit: ERROR - " + errorMessage);
-    }
-
-    public void displayExitSuccess(Vehicle vehicle) {
-        System.out.println("Display @Exit: Vehicle " + vehicle.getLicenseNumber()
-                + " exited successfully. Thank you!");
-    }
-
-    @Override
-    public void display() {
-        System.out.println("Display @Exit: Thank you! Drive safe.");
-    }
-}
+package com.airtribe.displaypanel;
+
+import com.airtribe.Vehicle;
+
+public class ExitDisplayPanel extends DisplayPanel {
+    public ExitDisplayPanel() {
+    }
+
+    public ExitDisplayPanel(DisplayRenderer renderer) {
+        super(renderer);
+    }
+
+    public void displayCost(Vehicle vehicle, double cost) {
+        renderer.publish("Display @Exit: Vehicle " + vehicle.getLicenseNumber()
+                + " - Total cost: ₹" + cost);
+    }
+
+    public void displayError(String errorMessage) {
+        renderer.publish("Display @Exit: ERROR - " + errorMessage);
+    }
+
+    public void displayExitSuccess(Vehicle vehicle) {
+        renderer.publish("Display @Exit: Vehicle " + vehicle.getLicenseNumber()
+                + " exited successfully. Thank you!");
+    }
+
+    @Override
+    public void display() {
+        renderer.publish("Display @Exit: Thank you! Drive safe.");
+    }
+}
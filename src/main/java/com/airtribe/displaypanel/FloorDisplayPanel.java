@@ -1,33 +1,41 @@
-package com.airtribe.displaypanel;
-
-import com.airtribe.ParkingSpot;
-import com.airtribe.SpotType;
-
-import java.util.Map;
-import java.util.Set;
-
-public class FloorDisplayPanel extends DisplayPanel {
-    private final String floorId;
-
-    public FloorDisplayPanel(String floorId) {
-        this.floorId = floorId;
-    }
-
-    public void displayAvailableSpots(Map<SpotType, Set<ParkingSpot>> spotMap, boolean underMaintenance) {
-        if (underMaintenance) {
-            System.out.println("Display @Floor " + floorId + ": This floor is under maintenance.");
-            return;
-        }
-
-        System.out.println("Display @Floor " + floorId + ": Available spots:");
-        for (Map.Entry<SpotType, Set<ParkingSpot>> entry : spotMap.entrySet()) {
-            long available = entry.getValue().stream().filter(spot -> !spot.isOccupied()).count();
-            System.out.println("- " + entry.getKey() + ": " + available + " spot(s)");
-        }
-    }
-
-    @Override
-    public void display() {
-        System.out.println("Display @Floor " + floorId + ": Welcome to Floor " + floorId);
-    }
-}
+package com.airtribe.displaypanel;
+
+import com.airtribe.SpotType;
+
+import java.util.Map;
+
+public class FloorDisplayPanel extends DisplayPanel {
+    private final String floorId;
+
+    public FloorDisplayPanel(String floorId) {
+        this.floorId = floorId;
+    }
+
+    public FloorDisplayPanel(String floorId, DisplayRenderer renderer) {
+        super(renderer);
+        this.floorId = floorId;
+    }
+
+    /**
+     * Publishes this floor's availability. Updates that arrive before the
+     * previous one was rendered replace it, so only the latest is shown.
+     */
+    public void displayAvailableSpots(Map<SpotType, Long> availableByType, boolean underMaintenance) {
+        if (underMaintenance) {
+            renderer.publishFloorStatus(floorId, "Display @Floor " + floorId + ": This floor is under maintenance.");
+            return;
+        }
+
+        StringBuilder status = new StringBuilder("Display @Floor ").append(floorId).append(": Available spots:");
+        for (Map.Entry<SpotType, Long> entry : availableByType.entrySet()) {
+            status.append(System.lineSeparator())
+                    .append("- ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" spot(s)");
+        }
+        renderer.publishFloorStatus(floorId, status.toString());
+    }
+
+    @Override
+    public void display() {
+        renderer.publish("Display @Floor " + floorId + ": Welcome to Floor " + floorId);
+    }
+}
@@ -0,0 +1,79 @@
+package com.airtribe.gateservice;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs entry and exit requests for a parking lot on an executor, one task
+ * per gate request. In virtual-thread mode every request gets its own
+ * virtual thread, so tens of thousands of mostly-blocked gate sessions
+ * (sensors, payment terminals) can be served by one JVM. The entry and
+ * exit paths use CAS and java.util.concurrent locks only, so blocking
+ * inside them never pins a carrier thread.
+ */
+public class GateService implements AutoCloseable {
+    private final ParkingLot parkingLot;
+    private final ExecutorService executor;
+
+    private GateService(ParkingLot parkingLot, ExecutorService executor) {
+        this.parkingLot = parkingLot;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a gate service that runs each request on a new virtual thread.
+     */
+    public static GateService virtualThreads(ParkingLot parkingLot) {
+        return new GateService(parkingLot, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Creates a gate service backed by a fixed pool of platform threads.
+     */
+    public static GateService platformThreads(ParkingLot parkingLot, int threads) {
+        return new GateService(parkingLot, Executors.newFixedThreadPool(threads));
+    }
+
+    /**
+     * Submits an entry request.
+     *
+     * @return A future completing with the ticket, or null if no spot was available
+     */
+    public CompletableFuture<ParkingTicket> enter(Vehicle vehicle) {
+        return CompletableFuture.supplyAsync(
+                () -> parkingLot.getEntryPanel().parkVehicle(vehicle, parkingLot), executor);
+    }
+
+    /**
+     * Submits an exit request. The future completes once the exit, including
+     * payment, has been processed.
+     */
+    public CompletableFuture<Void> exit(ParkingTicket ticket) {
+        return CompletableFuture.runAsync(
+                () -> parkingLot.getExitPanel().unparkVehicle(ticket, parkingLot), executor);
+    }
+
+    /**
+     * Runs an arbitrary gate session (for example entry, dwell, exit) as one task.
+     */
+    public CompletableFuture<Void> submit(Runnable session) {
+        return CompletableFuture.runAsync(session, executor);
+    }
+
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
+    /**
+     * Stops accepting requests and waits for the submitted ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,173 @@
+package com.airtribe.journal;
+
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of journal and snapshot records.
+ * Every record is framed as {@code [int payloadLength][int crc32c][payload]};
+ * a zero length marks the end of the written part of a preallocated segment,
+ * and a length or checksum that doesn't match marks a torn write at the tail.
+ */
+final class JournalCodec {
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    static final byte PARKED = 1;
+    static final byte EXITED = 2;
+
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+    private static final byte[] EMPTY = new byte[0];
+
+    private JournalCodec() {
+    }
+
+    /**
+     * A parked vehicle as recorded in the journal.
+     * ticketId is only set for tickets without a numeric ID.
+     */
+    record Parked(long ticketNumber, String ticketId, String spotId, String licenseNumber,
+                  VehicleType vehicleType, long entryTime) {
+
+        Object key() {
+            return ticketKey(ticketNumber, ticketId);
+        }
+    }
+
+    interface Visitor {
+        void parked(Parked parked);
+
+        void exited(Object ticketKey);
+    }
+
+    /**
+     * Key identifying a ticket in replayed state: the ticket number when
+     * there is one (no text rendering during recovery), otherwise the text ID.
+     */
+    static Object ticketKey(long ticketNumber, String ticketId) {
+        return ticketNumber >= 0 ? (Object) ticketNumber : ticketId;
+    }
+
+    static byte[] encodeParked(ParkingTicket ticket) {
+        Vehicle vehicle = ticket.getVehicle();
+        return encodeParked(ticket.getTicketNumber(),
+                ticket.getTicketNumber() >= 0 ? null : ticket.getTicketId(),
+                ticket.getSpotId(), vehicle.getLicenseNumber(), vehicle.getType(), ticket.getEntryTime());
+    }
+
+    static byte[] encodeParked(Parked parked) {
+        return encodeParked(parked.ticketNumber(), parked.ticketId(), parked.spotId(),
+                parked.licenseNumber(), parked.vehicleType(), parked.entryTime());
+    }
+
+    static byte[] encodeExited(ParkingTicket ticket) {
+        byte[] ticketId = ticket.getTicketNumber() >= 0 ? EMPTY : utf8(ticket.getTicketId());
+        ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES + Short.BYTES + ticketId.length);
+        payload.put(EXITED).putLong(ticket.getTicketNumber());
+        putString(payload, ticketId);
+        return frame(payload.array());
+    }
+
+    private static byte[] encodeParked(long ticketNumber, String ticketIdText, String spotIdText,
+                                       String licenseText, VehicleType vehicleType, long entryTime) {
+        byte[] ticketId = ticketIdText == null ? EMPTY : utf8(ticketIdText);
+        byte[] spotId = utf8(spotIdText);
+        byte[] license = utf8(licenseText);
+        ByteBuffer payload = ByteBuffer.allocate(1 + 2 * Long.BYTES + 1
+                + 3 * Short.BYTES + ticketId.length + spotId.length + license.length);
+        payload.put(PARKED).putLong(ticketNumber).putLong(entryTime).put((byte) vehicleType.ordinal());
+        putString(payload, ticketId);
+        putString(payload, spotId);
+        putString(payload, license);
+        return frame(payload.array());
+    }
+
+    /**
+     * Prefixes a payload with its length and checksum.
+     */
+    private static byte[] frame(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        return record.array();
+    }
+
+    /**
+     * Decodes records from the buffer's position until the end of written
+     * data or the first damaged record.
+     *
+     * @return the number of records read
+     */
+    static long readAll(ByteBuffer buffer, Visitor visitor) {
+        CRC32C crc = new CRC32C();
+        long records = 0;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt(start);
+            int checksum = buffer.getInt(start + Integer.BYTES);
+            if (length <= 0 || length > buffer.remaining() - HEADER_BYTES) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(start + HEADER_BYTES, length));
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            buffer.position(start + HEADER_BYTES);
+            decode(buffer, visitor);
+            buffer.position(start + HEADER_BYTES + length);
+            records++;
+        }
+        return records;
+    }
+
+    private static void decode(ByteBuffer payload, Visitor visitor) {
+        byte type = payload.get();
+        long ticketNumber = payload.getLong();
+        if (type == PARKED) {
+            long entryTime = payload.getLong();
+            VehicleType vehicleType = VEHICLE_TYPES[payload.get()];
+            String ticketId = getString(payload);
+            visitor.parked(new Parked(ticketNumber, ticketId.isEmpty() ? null : ticketId,
+                    getString(payload), getString(payload), vehicleType, entryTime));
+        } else if (type == EXITED) {
+            visitor.exited(ticketKey(ticketNumber, getString(payload)));
+        } else {
+            throw new IllegalStateException("Unknown journal record type: " + type);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Value too long for the journal: " + value.length() + " chars");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == 0) {
+            return "";
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,67 @@
+package com.airtribe.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One preallocated, memory-mapped journal file. Appends are plain memory
+ * writes into the mapping; force() makes them durable. Not thread-safe:
+ * TicketJournal serializes appends.
+ */
+final class JournalSegment implements Closeable {
+    private final long sequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(long sequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path file, long sequence, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Mapping past the end grows the file; the unwritten tail reads as zeros
+            return new JournalSegment(sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long sequence() {
+        return sequence;
+    }
+
+    int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Copies a framed record into the mapping.
+     *
+     * @return false if the record doesn't fit in what is left of the segment
+     */
+    boolean tryAppend(byte[] record) {
+        if (record.length > buffer.remaining()) {
+            return false;
+        }
+        buffer.put(record);
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,556 @@
+package com.airtribe.journal;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.ParkingTicketGenerator;
+import com.airtribe.parkingticket.TicketIds;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal of park and exit events, so the active tickets and
+ * spot occupancy survive a JVM restart.
+ *
+ * Events are appended to preallocated memory-mapped segment files
+ * (segment-NNNNNNNNNN.log). A background flusher forces the active segment
+ * to disk; callers that wait for durability share one force per round
+ * (group commit) instead of syncing per event. Sealed segments are
+ * periodically compacted into a snapshot (snapshot-NNNNNNNNNN.snap holds
+ * every vehicle still parked at the start of segment N) and then deleted,
+ * so recovery reads one snapshot plus a short tail.
+ *
+ * Snapshots are built from the journal files only, never from the live
+ * lot, so they are consistent without pausing entries or exits.
+ *
+ * Usage: open the journal, recover into a freshly built lot, then attach it
+ * with ParkingLot.attachJournal.
+ */
+public class TicketJournal implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 60_000;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalMillis;
+    private final long snapshotIntervalMillis;
+    private final boolean waitForFlush;
+
+    // Guards the active segment and the append/durable positions
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition flushRequested = appendLock.newCondition();
+    private final Condition flushed = appendLock.newCondition();
+    // Serializes snapshot builds
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private JournalSegment active;
+    // Positions are segmentSequence * segmentBytes + offset, so they only grow
+    private long appendedPosition;
+    private long durablePosition;
+    private volatile boolean open = true;
+    private final Thread flusher;
+    private final Thread snapshotter;
+
+    /**
+     * Result of replaying the journal into a lot.
+     *
+     * @param restored tickets re-issued and spots re-occupied
+     * @param skipped records whose spot is unknown to the lot or already occupied, or
+     *                whose plate already has a restored ticket
+     * @param millis time taken, including reading the files
+     */
+    public record RecoveryResult(int restored, int skipped, long millis) {
+    }
+
+    private TicketJournal(Path directory, int segmentBytes, long flushIntervalMillis,
+                          long snapshotIntervalMillis, boolean waitForFlush) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+        this.waitForFlush = waitForFlush;
+
+        Files.createDirectories(directory);
+        // Never append to a file from a previous run; its tail may be torn
+        long next = Math.max(lastSequence(SEGMENT_PREFIX, SEGMENT_SUFFIX),
+                lastSequence(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) + 1;
+        this.active = JournalSegment.create(segmentPath(next), next, segmentBytes);
+        this.appendedPosition = startOf(next);
+        this.durablePosition = appendedPosition;
+
+        this.flusher = new Thread(this::flushLoop, "ticket-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        this.snapshotter = new Thread(this::snapshotLoop, "ticket-journal-snapshotter");
+        this.snapshotter.setDaemon(true);
+        this.snapshotter.start();
+    }
+
+    /**
+     * Opens a journal in the given directory with default settings:
+     * 64 MB segments, a flush every 5 ms, a snapshot every minute, and
+     * appends that return only once the event is on disk.
+     */
+    public static TicketJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_FLUSH_INTERVAL_MILLIS,
+                DEFAULT_SNAPSHOT_INTERVAL_MILLIS, true);
+    }
+
+    /**
+     * Opens a journal in the given directory.
+     *
+     * @param segmentBytes size of each memory-mapped segment file
+     * @param flushIntervalMillis longest time an appended event stays unflushed
+     * @param snapshotIntervalMillis how often sealed segments are compacted into a snapshot
+     * @param waitForFlush true to make appends wait for the group commit that
+     *                     covers them; false to return as soon as the event is
+     *                     in the mapping (at most flushIntervalMillis of events
+     *                     can be lost on a power failure, none on a JVM crash)
+     */
+    public static TicketJournal open(Path directory, int segmentBytes, long flushIntervalMillis,
+                                     long snapshotIntervalMillis, boolean waitForFlush) throws IOException {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentBytes);
+        }
+        if (flushIntervalMillis <= 0 || snapshotIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Flush and snapshot intervals must be positive");
+        }
+        return new TicketJournal(directory, segmentBytes, flushIntervalMillis, snapshotIntervalMillis, waitForFlush);
+    }
+
+    /**
+     * Records that a vehicle was parked. Call before the ticket is issued.
+     *
+     * @throws UncheckedIOException if the event could not be written
+     */
+    public void appendParked(ParkingTicket ticket) {
+        append(JournalCodec.encodeParked(ticket));
+    }
+
+    /**
+     * Records a batch of parked vehicles, waiting for durability once.
+     * Null entries are skipped.
+     */
+    public void appendParked(ParkingTicket[] tickets) {
+        List<byte[]> records = new ArrayList<>(tickets.length);
+        for (ParkingTicket ticket : tickets) {
+            if (ticket != null) {
+                records.add(JournalCodec.encodeParked(ticket));
+            }
+        }
+        append(records.toArray(new byte[0][]));
+    }
+
+    /**
+     * Records that a vehicle left. Call before the spot is released.
+     *
+     * @throws UncheckedIOException if the event could not be written
+     */
+    public void appendExited(ParkingTicket ticket) {
+        append(JournalCodec.encodeExited(ticket));
+    }
+
+    private void append(byte[]... records) {
+        if (records.length == 0) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            if (!open) {
+                throw new IllegalStateException("Ticket journal is closed");
+            }
+            for (byte[] record : records) {
+                if (!active.tryAppend(record)) {
+                    roll();
+                    if (!active.tryAppend(record)) {
+                        throw new IllegalArgumentException("Journal record larger than a segment: " + record.length);
+                    }
+                }
+            }
+            long position = startOf(active.sequence()) + active.position();
+            appendedPosition = position;
+            if (waitForFlush) {
+                flushRequested.signal();
+                while (durablePosition < position) {
+                    flushed.awaitUninterruptibly();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the ticket journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Seals the active segment and starts the next one. Caller holds appendLock.
+     */
+    private void roll() throws IOException {
+        JournalSegment sealed = active;
+        sealed.force();
+        sealed.close();
+        long next = sealed.sequence() + 1;
+        active = JournalSegment.create(segmentPath(next), next, segmentBytes);
+        // Everything before the new segment is on disk now
+        appendedPosition = startOf(next);
+        durablePosition = appendedPosition;
+        flushed.signalAll();
+    }
+
+    private void flushLoop() {
+        while (open) {
+            JournalSegment segment;
+            long target;
+            appendLock.lock();
+            try {
+                if (appendedPosition == durablePosition) {
+                    flushRequested.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+                segment = active;
+                target = appendedPosition;
+                if (target == durablePosition) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                appendLock.unlock();
+            }
+
+            // Appends continue into the mapping while it is forced; the next round picks them up
+            segment.force();
+
+            appendLock.lock();
+            try {
+                durablePosition = Math.max(durablePosition, target);
+                flushed.signalAll();
+            } finally {
+                appendLock.unlock();
+            }
+        }
+    }
+
+    private void snapshotLoop() {
+        while (open) {
+            try {
+                Thread.sleep(snapshotIntervalMillis);
+                snapshot();
+            } catch (InterruptedException | IllegalStateException e) {
+                // Closed
+                break;
+            } catch (IOException | UncheckedIOException e) {
+                // Keep journaling; the segments stay until a later snapshot succeeds
+                System.err.println("Ticket journal snapshot failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Seals the active segment and compacts everything before it into a new
+     * snapshot, then deletes the files the snapshot replaces. Entries and
+     * exits keep appending to the next segment meanwhile.
+     */
+    public void snapshot() throws IOException {
+        long upTo;
+        appendLock.lock();
+        try {
+            if (!open) {
+                throw new IllegalStateException("Ticket journal is closed");
+            }
+            // Only seal the active segment if something was appended since the last roll
+            if (active.position() > 0) {
+                roll();
+            }
+            upTo = active.sequence();
+        } finally {
+            appendLock.unlock();
+        }
+
+        snapshotLock.lock();
+        try {
+            Map<Object, JournalCodec.Parked> parked = new HashMap<>();
+            long base = replay(upTo, parked);
+            if (base == upTo) {
+                return;
+            }
+            writeSnapshot(upTo, parked);
+            deleteBefore(upTo);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Replays the journal written before this journal was opened into a
+     * freshly built lot: re-occupies each spot and re-issues each ticket with
+     * its original ID and entry time. Spots are resolved by ID, so the lot
+     * must have the same floors and spots as before the restart. Call before
+     * the lot takes traffic and before attachJournal.
+     */
+    public RecoveryResult recover(ParkingLot parkingLot) throws IOException {
+        long start = System.nanoTime();
+        long upTo;
+        appendLock.lock();
+        try {
+            upTo = active.sequence();
+        } finally {
+            appendLock.unlock();
+        }
+
+        Restorer restorer = new Restorer(parkingLot);
+        snapshotLock.lock();
+        try {
+            Map.Entry<Long, Path> snapshot = latestSnapshot(upTo);
+            long base = snapshot == null ? 0 : snapshot.getKey();
+
+            // The tail is short: replay it first to learn which snapshot entries have left since
+            Map<Object, JournalCodec.Parked> tailParked = new HashMap<>();
+            Set<Object> exitedSinceSnapshot = new HashSet<>();
+            readSegments(base, upTo, new JournalCodec.Visitor() {
+                @Override
+                public void parked(JournalCodec.Parked entry) {
+                    tailParked.put(entry.key(), entry);
+                }
+
+                @Override
+                public void exited(Object ticketKey) {
+                    if (tailParked.remove(ticketKey) == null) {
+                        exitedSinceSnapshot.add(ticketKey);
+                    }
+                }
+            });
+
+            // Then stream the snapshot, restoring each entry as it is decoded
+            if (snapshot != null) {
+                read(snapshot.getValue(), new JournalCodec.Visitor() {
+                    @Override
+                    public void parked(JournalCodec.Parked entry) {
+                        if (exitedSinceSnapshot.isEmpty() || !exitedSinceSnapshot.contains(entry.key())) {
+                            restorer.restore(entry);
+                        }
+                    }
+
+                    @Override
+                    public void exited(Object ticketKey) {
+                        // Snapshots only hold parked vehicles
+                    }
+                });
+            }
+            for (JournalCodec.Parked entry : tailParked.values()) {
+                restorer.restore(entry);
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+
+        // New tickets must not reuse the numbers of restored ones
+        ParkingTicketGenerator.ensureCounterAtLeast(restorer.maxCounter);
+        return new RecoveryResult(restorer.restored, restorer.skipped, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Re-occupies spots and re-issues tickets for recovered entries.
+     */
+    private static final class Restorer {
+        private final ParkingLot parkingLot;
+        private int restored;
+        private int skipped;
+        private long maxCounter;
+
+        Restorer(ParkingLot parkingLot) {
+            this.parkingLot = parkingLot;
+        }
+
+        void restore(JournalCodec.Parked entry) {
+            ParkingSpot spot = parkingLot.getSpotById(entry.spotId());
+            Vehicle vehicle = new Vehicle(entry.licenseNumber(), entry.vehicleType());
+            if (spot == null || !spot.tryClaim(vehicle)) {
+                skipped++;
+                return;
+            }
+            try {
+                parkingLot.issueTicket(new ParkingTicket(entry.ticketNumber(), entry.ticketId(), vehicle, spot,
+                        entry.entryTime()));
+            } catch (IllegalStateException e) {
+                // Older journals allowed a plate to be parked twice; keep the ticket restored first
+                spot.release();
+                skipped++;
+                return;
+            }
+            if (entry.ticketNumber() >= 0) {
+                maxCounter = Math.max(maxCounter, entry.ticketNumber() % TicketIds.COUNTER_RADIX);
+            }
+            restored++;
+        }
+    }
+
+    /**
+     * Loads the newest snapshot not newer than upTo and applies every
+     * segment from there up to (not including) upTo.
+     *
+     * @return the sequence of the snapshot used, or 0 if there was none
+     */
+    private long replay(long upTo, Map<Object, JournalCodec.Parked> parked) throws IOException {
+        JournalCodec.Visitor visitor = new JournalCodec.Visitor() {
+            @Override
+            public void parked(JournalCodec.Parked entry) {
+                parked.put(entry.key(), entry);
+            }
+
+            @Override
+            public void exited(Object ticketKey) {
+                parked.remove(ticketKey);
+            }
+        };
+
+        Map.Entry<Long, Path> snapshot = latestSnapshot(upTo);
+        long base = 0;
+        if (snapshot != null) {
+            base = snapshot.getKey();
+            read(snapshot.getValue(), visitor);
+        }
+        readSegments(base, upTo, visitor);
+        return base;
+    }
+
+    private Map.Entry<Long, Path> latestSnapshot(long upTo) throws IOException {
+        return list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).floorEntry(upTo);
+    }
+
+    private void readSegments(long from, long upTo, JournalCodec.Visitor visitor) throws IOException {
+        for (Path segment : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).subMap(from, upTo).values()) {
+            read(segment, visitor);
+        }
+    }
+
+    private static void read(Path file, JournalCodec.Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            JournalCodec.readAll(buffer, visitor);
+        }
+    }
+
+    private void writeSnapshot(long sequence, Map<Object, JournalCodec.Parked> parked) throws IOException {
+        Path target = snapshotPath(sequence);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 20)) {
+            for (JournalCodec.Parked entry : parked.values()) {
+                out.write(JournalCodec.encodeParked(entry));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteBefore(long sequence) throws IOException {
+        for (Path segment : list(SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(sequence).values()) {
+            Files.deleteIfExists(segment);
+        }
+        for (Path snapshot : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(sequence).values()) {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk.
+     */
+    public void flush() {
+        appendLock.lock();
+        try {
+            active.force();
+            durablePosition = Math.max(durablePosition, appendedPosition);
+            flushed.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes outstanding events and stops the background threads.
+     * The journal is left on disk for the next recover().
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (!open) {
+                return;
+            }
+            open = false;
+            active.force();
+            durablePosition = appendedPosition;
+            flushed.signalAll();
+            active.close();
+        } finally {
+            appendLock.unlock();
+        }
+        flusher.interrupt();
+        snapshotter.interrupt();
+    }
+
+    private long startOf(long sequence) {
+        return sequence * segmentBytes;
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    private Path snapshotPath(long sequence) {
+        return directory.resolve(String.format("%s%010d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+
+    private long lastSequence(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = list(prefix, suffix);
+        return files.isEmpty() ? 0 : files.lastKey();
+    }
+
+    /**
+     * Lists journal files of one kind, keyed by sequence number.
+     */
+    private TreeMap<Long, Path> list(String prefix, String suffix) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                    try {
+                        files.put(Long.parseLong(name, prefix.length(), name.length() - suffix.length(), 10), path);
+                    } catch (NumberFormatException e) {
+                        // Not one of ours
+                    }
+                }
+            });
+        }
+        return files;
+    }
+}
@@ -0,0 +1,110 @@
+package com.airtribe.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets.
+ *
+ * Values below 16 ns get a bucket each; above that, every power of two is
+ * split into 16 equal sub-buckets, so a reported percentile is within 1/16
+ * (6.25%) of the true value. Values up to 2^41 ns (about 36 minutes) are
+ * tracked; longer ones are recorded as that.
+ *
+ * Each bucket is a LongAdder, so gates recording the same latency don't
+ * bounce one counter between cores, and recording is a couple of shifts
+ * and one add. Readers sum the buckets without stopping writers, so a
+ * snapshot taken under load may be off by the samples recorded meanwhile.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one sample. Negative values (a clock step) count as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.clamp(nanos, 0, MAX_VALUE);
+        counts[bucketOf(value)].increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records the time since startNanos, a System.nanoTime() reading.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Sums the buckets once and derives count, mean, max and percentiles
+     * from the same pass.
+     */
+    public LatencySummary snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts[i].sum();
+            count += copy[i];
+        }
+        long maxNanos = max.get();
+        return new LatencySummary(count, total.sum(),
+                percentile(copy, count, 0.50, maxNanos),
+                percentile(copy, count, 0.99, maxNanos),
+                percentile(copy, count, 0.999, maxNanos),
+                maxNanos);
+    }
+
+    /**
+     * Highest value in the bucket holding the q-th sample, capped at the
+     * largest value recorded.
+     */
+    private static long percentile(long[] copy, long count, double q, long maxNanos) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        // Mantissa is the top five bits, 16..31
+        int mantissa = (int) (value >>> shift);
+        return (shift + 1) * SUB_BUCKETS + mantissa - SUB_BUCKETS;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,247 @@
+package com.airtribe.metrics;
+
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters for one parking lot.
+ *
+ * EntryPanel and ExitPanel record into the histograms and rejection
+ * counters as they work; race retries, spots scanned and occupancy are
+ * summed from the floors' free-spot index counters when they are read.
+ *
+ * Read it through the getters, over JMX (register), or as plain text
+ * (scrape, served by MetricsServer).
+ */
+public class ParkingMetrics implements ParkingMetricsMXBean {
+
+    /**
+     * Timed operations.
+     */
+    public enum Operation {
+        /** EntryPanel.parkVehicle, from arrival to ticket (or refusal) */
+        PARK,
+        /** ExitPanel.unparkVehicle, including cost and payment */
+        UNPARK,
+        /** The strategy's search for and claim of a spot */
+        FIND_SPOT,
+        /** Cost computation at exit */
+        COST,
+        /** Payment processing at exit */
+        PAYMENT
+    }
+
+    /**
+     * Reasons an entry or exit was turned away.
+     */
+    public enum Rejection {
+        /** No compatible spot was free */
+        NO_SPOT,
+        /** The plate was already parked or being parked at another gate */
+        DUPLICATE_PLATE,
+        /** Unknown or already used reservation, wrong vehicle, or outside its window */
+        INVALID_RESERVATION,
+        /** Unknown, already used or inconsistent ticket at exit */
+        INVALID_TICKET,
+        /** Payment declined or failed; the ticket stays active */
+        PAYMENT_FAILED
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Rejection[] REJECTIONS = Rejection.values();
+
+    private final List<ParkingFloor> floors;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final LongAdder[] rejections = new LongAdder[REJECTIONS.length];
+    // Vehicles the strategy searched a spot for, single or in batches
+    private final LongAdder lookups = new LongAdder();
+
+    /**
+     * @param floors The lot's live floor list, read whenever the floor-level
+     *               counters are
+     */
+    public ParkingMetrics(List<ParkingFloor> floors) {
+        this.floors = floors;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records an operation that started at startNanos (a System.nanoTime() reading).
+     */
+    public void recordSince(Operation operation, long startNanos) {
+        latencies[operation.ordinal()].recordSince(startNanos);
+    }
+
+    public void reject(Rejection reason) {
+        rejections[reason.ordinal()].increment();
+    }
+
+    public void countLookups(int vehicles) {
+        lookups.add(vehicles);
+    }
+
+    public LatencyHistogram histogram(Operation operation) {
+        return latencies[operation.ordinal()];
+    }
+
+    public long getRejectionCount(Rejection reason) {
+        return rejections[reason.ordinal()].sum();
+    }
+
+    @Override
+    public LatencySummary getParkLatency() {
+        return histogram(Operation.PARK).snapshot();
+    }
+
+    @Override
+    public LatencySummary getUnparkLatency() {
+        return histogram(Operation.UNPARK).snapshot();
+    }
+
+    @Override
+    public LatencySummary getFindSpotLatency() {
+        return histogram(Operation.FIND_SPOT).snapshot();
+    }
+
+    @Override
+    public LatencySummary getCostLatency() {
+        return histogram(Operation.COST).snapshot();
+    }
+
+    @Override
+    public LatencySummary getPaymentLatency() {
+        return histogram(Operation.PAYMENT).snapshot();
+    }
+
+    @Override
+    public long getRaceRetries() {
+        long retries = 0;
+        for (ParkingFloor floor : floors) {
+            retries += floor.getLostClaimCount();
+        }
+        return retries;
+    }
+
+    @Override
+    public Map<String, Long> getRejections() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Rejection reason : REJECTIONS) {
+            counts.put(label(reason), getRejectionCount(reason));
+        }
+        return counts;
+    }
+
+    @Override
+    public long getSpotsScanned() {
+        long scanned = 0;
+        for (ParkingFloor floor : floors) {
+            scanned += floor.getScannedSpotCount();
+        }
+        return scanned;
+    }
+
+    @Override
+    public double getSpotsScannedPerLookup() {
+        long count = lookups.sum();
+        return count == 0 ? 0.0 : (double) getSpotsScanned() / count;
+    }
+
+    @Override
+    public Map<String, Double> getFloorOccupancy() {
+        Map<String, Double> occupancy = new LinkedHashMap<>();
+        for (ParkingFloor floor : floors) {
+            long spots = floor.getSpotCount();
+            occupancy.put(floor.getFloorId(),
+                    spots == 0 ? 0.0 : (double) (spots - floor.getAvailableSpotCount()) / spots);
+        }
+        return occupancy;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server as
+     * com.airtribe:type=ParkingLot,name=&lt;name&gt;.
+     *
+     * @return The name registered, for unregistering later
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("com.airtribe:type=ParkingLot,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Renders every metric in the Prometheus text exposition format, with
+     * latencies in seconds.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(2048);
+        out.append("# HELP parking_latency_seconds Latency of lot operations\n");
+        out.append("# TYPE parking_latency_seconds summary\n");
+        for (Operation operation : OPERATIONS) {
+            String op = label(operation);
+            LatencySummary summary = histogram(operation).snapshot();
+            quantile(out, op, "0.5", summary.getP50Nanos());
+            quantile(out, op, "0.99", summary.getP99Nanos());
+            quantile(out, op, "0.999", summary.getP999Nanos());
+            out.append("parking_latency_seconds_sum{operation=\"").append(op).append("\"} ")
+                    .append(seconds(summary.getSumNanos())).append('\n');
+            out.append("parking_latency_seconds_count{operation=\"").append(op).append("\"} ")
+                    .append(summary.getCount()).append('\n');
+        }
+
+        out.append("# HELP parking_rejections_total Entries and exits turned away\n");
+        out.append("# TYPE parking_rejections_total counter\n");
+        for (Rejection reason : REJECTIONS) {
+            out.append("parking_rejections_total{reason=\"").append(label(reason)).append("\"} ")
+                    .append(getRejectionCount(reason)).append('\n');
+        }
+
+        out.append("# HELP parking_race_retries_total Spot claims lost to another gate\n");
+        out.append("# TYPE parking_race_retries_total counter\n");
+        out.append("parking_race_retries_total ").append(getRaceRetries()).append('\n');
+        out.append("# HELP parking_spots_scanned_total Candidate spots examined by lookups\n");
+        out.append("# TYPE parking_spots_scanned_total counter\n");
+        out.append("parking_spots_scanned_total ").append(getSpotsScanned()).append('\n');
+        out.append("# HELP parking_lookups_total Vehicles a spot was searched for\n");
+        out.append("# TYPE parking_lookups_total counter\n");
+        out.append("parking_lookups_total ").append(lookups.sum()).append('\n');
+
+        out.append("# HELP parking_floor_occupancy Occupied share of the floor's spots\n");
+        out.append("# TYPE parking_floor_occupancy gauge\n");
+        for (Map.Entry<String, Double> entry : getFloorOccupancy().entrySet()) {
+            out.append("parking_floor_occupancy{floor=\"").append(escape(entry.getKey())).append("\"} ")
+                    .append(entry.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void quantile(StringBuilder out, String operation, String quantile, long nanos) {
+        out.append("parking_latency_seconds{operation=\"").append(operation).append("\",quantile=\"")
+                .append(quantile).append("\"} ").append(seconds(nanos)).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    private static String label(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
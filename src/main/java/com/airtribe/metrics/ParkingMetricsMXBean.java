@@ -0,0 +1,40 @@
+package com.airtribe.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of a lot's ParkingMetrics. Latencies are in nanoseconds.
+ */
+public interface ParkingMetricsMXBean {
+    LatencySummary getParkLatency();
+
+    LatencySummary getUnparkLatency();
+
+    LatencySummary getFindSpotLatency();
+
+    LatencySummary getCostLatency();
+
+    LatencySummary getPaymentLatency();
+
+    /**
+     * Spot claims that lost a race and moved on to another candidate.
+     */
+    long getRaceRetries();
+
+    /**
+     * Rejected entries and exits by reason (see ParkingMetrics.Rejection).
+     */
+    Map<String, Long> getRejections();
+
+    long getSpotsScanned();
+
+    /**
+     * Candidate spots examined per vehicle looked up.
+     */
+    double getSpotsScannedPerLookup();
+
+    /**
+     * Occupied share of each floor's spots, 0 to 1, by floor ID.
+     */
+    Map<String, Double> getFloorOccupancy();
+}
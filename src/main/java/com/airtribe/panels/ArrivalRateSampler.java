@@ -0,0 +1,87 @@
+package com.airtribe.panels;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding-window counter of vehicle arrivals.
+ *
+ * The window is a ring of one-second buckets. Each bucket is a single long
+ * holding the epoch second it counts for (high bits) and the number of
+ * arrivals in that second (low 24 bits), so recording an arrival is one CAS
+ * that also resets a bucket left over from an earlier lap of the ring.
+ * Readers only load the buckets, so sampling the rate never contends with
+ * the gates recording arrivals.
+ */
+public class ArrivalRateSampler {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final int windowSeconds;
+    private final AtomicLongArray buckets;
+    private final long startMillis;
+
+    /**
+     * @param windowSeconds Length of the sliding window
+     */
+    public ArrivalRateSampler(int windowSeconds) {
+        if (windowSeconds < 1) {
+            throw new IllegalArgumentException("Window must be at least one second: " + windowSeconds);
+        }
+        this.windowSeconds = windowSeconds;
+        this.buckets = new AtomicLongArray(windowSeconds);
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Records one arrival at the given time.
+     */
+    public void record(long nowMillis) {
+        record(nowMillis, 1);
+    }
+
+    /**
+     * Records a number of arrivals at the given time, e.g. a convoy parked
+     * with EntryPanel.parkVehicles.
+     */
+    public void record(long nowMillis, int arrivals) {
+        if (arrivals <= 0) {
+            return;
+        }
+        long second = nowMillis / 1000;
+        int slot = (int) (second % windowSeconds);
+        long current;
+        long updated;
+        do {
+            current = buckets.get(slot);
+            long count = (current >>> COUNT_BITS) == second ? current & COUNT_MASK : 0;
+            // Saturate rather than carry into the second
+            updated = (second << COUNT_BITS) | Math.min(COUNT_MASK, count + arrivals);
+        } while (!buckets.compareAndSet(slot, current, updated));
+    }
+
+    /**
+     * Arrivals per minute averaged over the window ending at the given time.
+     * Buckets from before the window are ignored, so the rate decays to zero
+     * once arrivals stop.
+     */
+    public double ratePerMinute(long nowMillis) {
+        long second = nowMillis / 1000;
+        long oldest = second - windowSeconds + 1;
+        long arrivals = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            long bucket = buckets.get(i);
+            long bucketSecond = bucket >>> COUNT_BITS;
+            if (bucketSecond >= oldest && bucketSecond <= second) {
+                arrivals += bucket & COUNT_MASK;
+            }
+        }
+        // The current second is only partly over, and a young sampler hasn't seen a full window yet
+        double elapsedSeconds = Math.min(windowSeconds - 1 + (nowMillis % 1000) / 1000.0,
+                (nowMillis - startMillis) / 1000.0);
+        return arrivals * 60.0 / Math.max(elapsedSeconds, 1.0);
+    }
+
+    public int getWindowSeconds() {
+        return windowSeconds;
+    }
+}
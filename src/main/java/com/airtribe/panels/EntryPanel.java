@@ -4,14 +4,25 @@ import com.airtribe.ParkingLot;
 import com.airtribe.ParkingSpot;
 import com.airtribe.Vehicle;
 import com.airtribe.displaypanel.EntryDisplayPanel;
+import com.airtribe.metrics.ParkingMetrics;
+import com.airtribe.metrics.ParkingMetrics.Operation;
+import com.airtribe.metrics.ParkingMetrics.Rejection;
 import com.airtribe.parkingstrategy.ParkingStrategy;
 import com.airtribe.parkingticket.ParkingTicket;
 import com.airtribe.parkingticket.ParkingTicketGenerator;
+import com.airtribe.reservation.Reservation;
+import com.airtribe.reservation.ReservationBook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class EntryPanel {
     private volatile ParkingStrategy strategy;
     private final EntryDisplayPanel displayPanel;
     private final ParkingTicketGenerator ticketGenerator;
+    // Arrivals over the last minute, read by occupancy-based pricing
+    private final ArrivalRateSampler arrivalRate = new ArrivalRateSampler(60);
 
     public EntryPanel(ParkingStrategy strategy) {
         this(strategy, new ParkingTicketGenerator());
@@ -23,62 +34,231 @@ public class EntryPanel {
         this.ticketGenerator = ticketGenerator;
     }
 
-    public synchronized void changeStrategy(ParkingStrategy strategy) {
+    public void changeStrategy(ParkingStrategy strategy) {
         this.strategy = strategy;
     }
 
+    /**
+     * Returns the sampler counting vehicles arriving at this panel, whether
+     * or not they got a spot.
+     */
+    public ArrivalRateSampler getArrivalRate() {
+        return arrivalRate;
+    }
+
     /**
      * Parks a vehicle in a thread-safe manner.
-     * Handles race conditions where multiple threads might try to park in the same spot.
+     * The strategy hands back a spot that is already claimed for the vehicle;
+     * lost races move on to the next candidate, so the vehicle is only turned
+     * away when no compatible spot is free, or when its plate is already
+     * parked (or being parked at another gate).
+     * The time taken, refusals included, is recorded in the lot's metrics.
      * 
      * @param vehicle The vehicle to park
      * @param parkingLot The parking lot
      * @return ParkingTicket if successful, null otherwise
      */
     public ParkingTicket parkVehicle(Vehicle vehicle, ParkingLot parkingLot) {
-        // Maximum retry attempts in case of race conditions
-        int maxRetries = 3;
-        int attempt = 0;
-        
-        while (attempt < maxRetries) {
-            // Find an available spot using the current strategy
-            ParkingSpot spot = strategy.findSpot(vehicle, parkingLot);
-            
-            if (spot == null) {
-                // No spot available
-                displayPanel.displayTicketIssued(null);
-                return null;
+        long start = System.nanoTime();
+        ParkingMetrics metrics = parkingLot.getMetrics();
+        try {
+            return park(vehicle, parkingLot, metrics);
+        } finally {
+            metrics.recordSince(Operation.PARK, start);
+        }
+    }
+
+    private ParkingTicket park(Vehicle vehicle, ParkingLot parkingLot, ParkingMetrics metrics) {
+        arrivalRate.record(System.currentTimeMillis());
+        String plate = vehicle.getLicenseNumber();
+        if (!parkingLot.reservePlate(plate)) {
+            metrics.reject(Rejection.DUPLICATE_PLATE);
+            displayPanel.displayAlreadyParked(vehicle);
+            return null;
+        }
+
+        ParkingSpot spot;
+        long lookupStart = System.nanoTime();
+        try {
+            spot = strategy.claimSpot(vehicle, parkingLot);
+        } catch (RuntimeException e) {
+            parkingLot.releasePlate(plate);
+            throw e;
+        } finally {
+            metrics.recordSince(Operation.FIND_SPOT, lookupStart);
+            metrics.countLookups(1);
+        }
+
+        if (spot == null) {
+            // No spot available
+            parkingLot.releasePlate(plate);
+            metrics.reject(Rejection.NO_SPOT);
+            displayPanel.displayTicketIssued(null);
+            return null;
+        }
+
+        ParkingTicket ticket = ticketGenerator.generateTicket(vehicle, spot);
+        try {
+            // Write-ahead: the event is journaled before the ticket becomes visible
+            parkingLot.recordEntry(ticket);
+        } catch (RuntimeException e) {
+            spot.release();
+            parkingLot.releasePlate(plate);
+            throw e;
+        }
+        parkingLot.issueTicket(ticket);
+        displayPanel.displayTicketIssued(ticket);
+        return ticket;
+    }
+
+    /**
+     * Parks a vehicle holding an advance reservation. The spot comes from
+     * the booked floor and spot type, including spots held back from
+     * walk-ins. Check-in opens an hour before the booked window (the hold
+     * period) and closes when it ends.
+     *
+     * @param vehicle The arriving vehicle; must match the booked plate and spot type
+     * @param reservationId The reservation to check in
+     * @param parkingLot The parking lot
+     * @return ParkingTicket if successful, null otherwise
+     */
+    public ParkingTicket parkReservedVehicle(Vehicle vehicle, String reservationId, ParkingLot parkingLot) {
+        long start = System.nanoTime();
+        ParkingMetrics metrics = parkingLot.getMetrics();
+        try {
+            return parkReserved(vehicle, reservationId, parkingLot, metrics);
+        } finally {
+            metrics.recordSince(Operation.PARK, start);
+        }
+    }
+
+    private ParkingTicket parkReserved(Vehicle vehicle, String reservationId, ParkingLot parkingLot,
+                                       ParkingMetrics metrics) {
+        arrivalRate.record(System.currentTimeMillis());
+        ReservationBook reservations = parkingLot.getReservations();
+        Reservation reservation = reservations.getReservation(reservationId);
+        if (reservation == null || !reservation.isFor(vehicle)) {
+            metrics.reject(Rejection.INVALID_RESERVATION);
+            displayPanel.displayReservationRefused(vehicle, "no matching reservation " + reservationId);
+            return null;
+        }
+        if (!reservations.isCheckInOpen(reservation)) {
+            metrics.reject(Rejection.INVALID_RESERVATION);
+            displayPanel.displayReservationRefused(vehicle, "outside the booked window");
+            return null;
+        }
+        String plate = vehicle.getLicenseNumber();
+        if (!parkingLot.reservePlate(plate)) {
+            metrics.reject(Rejection.DUPLICATE_PLATE);
+            displayPanel.displayAlreadyParked(vehicle);
+            return null;
+        }
+
+        ParkingSpot spot;
+        try {
+            spot = reservations.checkIn(reservation, vehicle);
+        } catch (RuntimeException e) {
+            parkingLot.releasePlate(plate);
+            throw e;
+        }
+        if (spot == null) {
+            // Already used, or walk-ins got past the hold
+            parkingLot.releasePlate(plate);
+            metrics.reject(reservation.getStatus() == Reservation.Status.BOOKED
+                    ? Rejection.NO_SPOT : Rejection.INVALID_RESERVATION);
+            displayPanel.displayTicketIssued(null);
+            return null;
+        }
+
+        ParkingTicket ticket = ticketGenerator.generateTicket(vehicle, spot);
+        try {
+            parkingLot.recordEntry(ticket);
+        } catch (RuntimeException e) {
+            reservations.undoCheckIn(reservation, spot);
+            parkingLot.releasePlate(plate);
+            throw e;
+        }
+        parkingLot.issueTicket(ticket);
+        reservations.bindTicket(reservation, ticket);
+        displayPanel.displayTicketIssued(ticket);
+        return ticket;
+    }
+
+    /**
+     * Parks a batch of vehicles arriving together (convoys, event traffic).
+     * Spots for the whole batch are claimed in one pass by the strategy,
+     * ticket numbers are reserved as one contiguous range, and all tickets
+     * are inserted into the lot together. Batches count towards the lot's
+     * rejection and lookup counters but not its latency histograms, which
+     * time single entries.
+     *
+     * @param vehicles The vehicles to park
+     * @param parkingLot The parking lot
+     * @return Tickets aligned with the input; null for vehicles that got no
+     *         spot or whose plate is already parked
+     */
+    public List<ParkingTicket> parkVehicles(List<Vehicle> vehicles, ParkingLot parkingLot) {
+        if (vehicles.isEmpty()) {
+            return List.of();
+        }
+        arrivalRate.record(System.currentTimeMillis(), vehicles.size());
+
+        ParkingMetrics metrics = parkingLot.getMetrics();
+
+        // Only vehicles whose plate could be reserved go on to claim a spot
+        boolean[] admitted = new boolean[vehicles.size()];
+        List<Vehicle> entering = new ArrayList<>(vehicles.size());
+        for (int i = 0; i < admitted.length; i++) {
+            admitted[i] = parkingLot.reservePlate(vehicles.get(i).getLicenseNumber());
+            if (admitted[i]) {
+                entering.add(vehicles.get(i));
+            } else {
+                metrics.reject(Rejection.DUPLICATE_PLATE);
+            }
+        }
+        metrics.countLookups(entering.size());
+
+        ParkingSpot[] spots = new ParkingSpot[vehicles.size()];
+        try {
+            ParkingSpot[] claimed = entering.isEmpty() ? spots : strategy.claimSpots(entering, parkingLot);
+            for (int i = 0, next = 0; i < admitted.length; i++) {
+                if (admitted[i]) {
+                    spots[i] = claimed[next++];
+                }
+            }
+        } catch (RuntimeException e) {
+            releasePlates(vehicles, admitted, parkingLot);
+            throw e;
+        }
+        for (int i = 0; i < admitted.length; i++) {
+            if (admitted[i] && spots[i] == null) {
+                parkingLot.releasePlate(vehicles.get(i).getLicenseNumber());
+                metrics.reject(Rejection.NO_SPOT);
             }
-            
-            // Try to park the vehicle (atomic operation)
-            boolean parked = spot.parkVehicle(vehicle);
-            
-            if (parked) {
-                // Successfully parked, generate ticket
-                ParkingTicket ticket = ticketGenerator.generateTicket(vehicle, spot);
-                parkingLot.issueTicket(ticket);
-                displayPanel.displayTicketIssued(ticket);
-                return ticket;
+        }
+
+        ParkingTicket[] tickets = ticketGenerator.generateTickets(vehicles, spots);
+        try {
+            parkingLot.recordEntries(tickets);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < spots.length; i++) {
+                if (spots[i] != null) {
+                    spots[i].release();
+                    parkingLot.releasePlate(vehicles.get(i).getLicenseNumber());
+                }
             }
-            
-            // Spot was taken by another thread, retry
-            attempt++;
-            System.out.println("Race condition detected for vehicle " + vehicle.getLicensePlate() + 
-                             ". Retrying... (Attempt " + attempt + "/" + maxRetries + ")");
-            
-            // Small delay before retry to reduce contention
-            try {
-                Thread.sleep(10);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
+            throw e;
+        }
+        parkingLot.issueTickets(tickets);
+        displayPanel.displayTicketsIssued(vehicles, tickets);
+        return Arrays.asList(tickets);
+    }
+
+    private static void releasePlates(List<Vehicle> vehicles, boolean[] admitted, ParkingLot parkingLot) {
+        for (int i = 0; i < admitted.length; i++) {
+            if (admitted[i]) {
+                parkingLot.releasePlate(vehicles.get(i).getLicenseNumber());
             }
         }
-        
-        // Failed to park after retries
-        System.out.println("Failed to park vehicle " + vehicle.getLicensePlate() + 
-                         " after " + maxRetries + " attempts");
-        displayPanel.displayTicketIssued(null);
-        return null;
     }
 }
@@ -4,9 +4,14 @@ import com.airtribe.ParkingLot;
 import com.airtribe.ParkingSpot;
 import com.airtribe.coststrategy.CostComputationStrategy;
 import com.airtribe.displaypanel.ExitDisplayPanel;
+import com.airtribe.metrics.ParkingMetrics;
+import com.airtribe.metrics.ParkingMetrics.Operation;
+import com.airtribe.metrics.ParkingMetrics.Rejection;
 import com.airtribe.parkingticket.ParkingTicket;
 import com.airtribe.payment.PaymentProcessor;
 
+import java.util.concurrent.CompletableFuture;
+
 public class ExitPanel {
     private final ExitDisplayPanel displayPanel;
     private final PaymentProcessor paymentProcessor;
@@ -20,55 +25,181 @@ public class ExitPanel {
 
     /**
      * Unparks a vehicle in a thread-safe manner.
-     * Ensures that only one thread can process a ticket at a time.
+     * The ticket is claimed by atomically removing it from the active tickets,
+     * so exactly one gate can process a given ticket while exits for other
+     * tickets (including their payments) run in parallel. If the exit cannot
+     * complete, including when the cost strategy or the payment processor
+     * throws, the ticket is put back so it can be retried.
+     * The exit, its cost computation and its payment are timed in the lot's
+     * metrics.
      * 
      * @param ticket The parking ticket
      * @param parkingLot The parking lot
      */
-    public synchronized void unparkVehicle(ParkingTicket ticket, ParkingLot parkingLot) {
+    public void unparkVehicle(ParkingTicket ticket, ParkingLot parkingLot) {
+        long start = System.nanoTime();
+        ParkingMetrics metrics = parkingLot.getMetrics();
+        try {
+            PendingExit exit = beginExit(ticket, parkingLot, metrics);
+            if (exit == null) {
+                return;
+            }
+
+            // Process payment first (before releasing the spot)
+            long paymentStart = System.nanoTime();
+            boolean paid;
+            try {
+                paid = paymentProcessor.processPayment(exit.cost());
+            } catch (RuntimeException e) {
+                parkingLot.issueTicket(exit.ticket());
+                throw e;
+            } finally {
+                metrics.recordSince(Operation.PAYMENT, paymentStart);
+            }
+            finishExit(exit, parkingLot, metrics, paid);
+        } finally {
+            metrics.recordSince(Operation.UNPARK, start);
+        }
+    }
+
+    /**
+     * Unparks a vehicle without waiting for the payment on the calling thread.
+     * The ticket is claimed and the cost computed immediately; the spot is
+     * released once the payment completes, so the gate can move on to the
+     * next vehicle while the authorization is in flight.
+     *
+     * @param ticket The parking ticket
+     * @param parkingLot The parking lot
+     * @return A future completing with true once the vehicle has exited,
+     *         false if the ticket was invalid or the payment failed
+     */
+    public CompletableFuture<Boolean> unparkVehicleAsync(ParkingTicket ticket, ParkingLot parkingLot) {
+        long start = System.nanoTime();
+        ParkingMetrics metrics = parkingLot.getMetrics();
+        PendingExit exit;
+        try {
+            exit = beginExit(ticket, parkingLot, metrics);
+        } catch (RuntimeException e) {
+            metrics.recordSince(Operation.UNPARK, start);
+            throw e;
+        }
+        if (exit == null) {
+            metrics.recordSince(Operation.UNPARK, start);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        // Both timings run until the payment completes, not until this method returns
+        long paymentStart = System.nanoTime();
+        CompletableFuture<Boolean> payment;
+        try {
+            payment = paymentProcessor.processPaymentAsync(exit.cost());
+        } catch (RuntimeException e) {
+            // The default processPaymentAsync pays on this thread, so its errors surface here
+            parkingLot.issueTicket(exit.ticket());
+            metrics.recordSince(Operation.PAYMENT, paymentStart);
+            metrics.recordSince(Operation.UNPARK, start);
+            throw e;
+        }
+        return payment
+                .exceptionally(error -> false)
+                .thenApply(paid -> {
+                    metrics.recordSince(Operation.PAYMENT, paymentStart);
+                    try {
+                        return finishExit(exit, parkingLot, metrics, paid);
+                    } finally {
+                        metrics.recordSince(Operation.UNPARK, start);
+                    }
+                });
+    }
+
+    /**
+     * A claimed ticket, its spot and the amount due, between claim and payment.
+     */
+    private record PendingExit(ParkingTicket ticket, ParkingSpot spot, double cost) {
+    }
+
+    /**
+     * Validates and claims the ticket and computes the cost.
+     * Returns null (after displaying why) if the exit can't go ahead.
+     */
+    private PendingExit beginExit(ParkingTicket ticket, ParkingLot parkingLot, ParkingMetrics metrics) {
         if (ticket == null || ticket.getSpotId() == null) {
+            metrics.reject(Rejection.INVALID_TICKET);
             displayPanel.displayError("Invalid parking ticket");
-            return;
+            return null;
         }
 
-        // Verify ticket still exists (not already processed)
-        ParkingTicket activeTicket = parkingLot.getTicket(ticket.getTicketId());
+        // Claim the ticket; a concurrent exit of the same ticket gets null here
+        ParkingTicket activeTicket = parkingLot.claimTicketForExit(ticket.getTicketId());
         if (activeTicket == null) {
+            metrics.reject(Rejection.INVALID_TICKET);
             displayPanel.displayError("Ticket already processed or invalid: " + ticket.getTicketId());
-            return;
+            return null;
         }
 
-        // Calculate cost using the strategy pattern
-        double cost = costStrategy.computeCost(ticket);
-
-        // Retrieve the spot from ParkingLot by spotId
-        ParkingSpot spot = parkingLot.getSpotById(ticket.getSpotId());
+        // Use the spot handle carried by the ticket, falling back to the lot's registry
+        ParkingSpot spot = activeTicket.getSpot();
+        if (spot == null) {
+            spot = parkingLot.getSpotById(activeTicket.getSpotId());
+        }
         if (spot == null) {
-            displayPanel.displayError("Parking spot not found: " + ticket.getSpotId());
-            return;
+            parkingLot.issueTicket(activeTicket);
+            metrics.reject(Rejection.INVALID_TICKET);
+            displayPanel.displayError("Parking spot not found: " + activeTicket.getSpotId());
+            return null;
         }
 
         // Verify the spot is occupied
         if (!spot.isOccupied()) {
-            displayPanel.displayError("Parking spot is already empty: " + ticket.getSpotId());
-            return;
+            parkingLot.issueTicket(activeTicket);
+            metrics.reject(Rejection.INVALID_TICKET);
+            displayPanel.displayError("Parking spot is already empty: " + activeTicket.getSpotId());
+            return null;
         }
 
-        // Process payment first (before releasing the spot)
-        boolean paymentSuccess = paymentProcessor.processPayment(cost);
+        // Calculate cost using the strategy pattern
+        long costStart = System.nanoTime();
+        double cost;
+        try {
+            cost = costStrategy.computeCost(activeTicket);
+        } catch (RuntimeException e) {
+            parkingLot.issueTicket(activeTicket);
+            throw e;
+        } finally {
+            metrics.recordSince(Operation.COST, costStart);
+        }
+        return new PendingExit(activeTicket, spot, cost);
+    }
 
+    /**
+     * Releases the spot if the payment went through, otherwise puts the
+     * ticket back so the exit can be retried.
+     */
+    private boolean finishExit(PendingExit exit, ParkingLot parkingLot, ParkingMetrics metrics,
+                               boolean paymentSuccess) {
         if (paymentSuccess) {
-            // Remove vehicle from spot (thread-safe operation)
-            spot.removeVehicle();
-            
-            // Remove ticket from active tickets
-            parkingLot.removeTicket(ticket.getTicketId());
-            
+            try {
+                // Write-ahead: journal the exit before the spot is freed
+                parkingLot.recordExit(exit.ticket());
+            } catch (RuntimeException e) {
+                parkingLot.issueTicket(exit.ticket());
+                throw e;
+            }
+
+            // Remove vehicle from spot (lock-free release)
+            exit.spot().release();
+            // Only now may the plate enter again
+            parkingLot.unbindPlate(exit.ticket());
+            parkingLot.getReservations().completeStay(exit.ticket());
+
             // Display success messages
-            displayPanel.displayCost(ticket.getVehicle(), cost);
-            displayPanel.displayExitSuccess(ticket.getVehicle());
-        } else {
-            displayPanel.displayError("Payment failed. Please try again.");
+            displayPanel.displayCost(exit.ticket().getVehicle(), exit.cost());
+            displayPanel.displayExitSuccess(exit.ticket().getVehicle());
+            return true;
         }
+        parkingLot.issueTicket(exit.ticket());
+        metrics.reject(Rejection.PAYMENT_FAILED);
+        displayPanel.displayError("Payment failed. Please try again.");
+        return false;
     }
 }
@@ -0,0 +1,298 @@
+package com.airtribe.parkingfloor;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bitmap index of free spots for a single spot type on a floor.
+ * Each spot gets an ordinal when added; bit N is set while spot N is free.
+ * Spots flip their own bit from parkVehicle/removeVehicle, so finding a
+ * free spot only scans bitmap words instead of every spot object.
+ * The number of set bits is tracked alongside, so the free count is O(1).
+ */
+public class FreeSpotIndex {
+    // 64 words of 64 bits -> 4096 spots per chunk
+    private static final int WORDS_PER_CHUNK = 64;
+    private static final int SPOTS_PER_CHUNK = WORDS_PER_CHUNK * Long.SIZE;
+    // Random ordinals tried before falling back to picking by rank
+    private static final int RANDOM_PROBES = 4;
+
+    // Chunks never move once created, so a bit flip can't be lost while the index grows
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+    // Changed only when a bit actually flips, so it always equals the number of set bits
+    private final LongAdder freeCount = new LongAdder();
+    // Claims that found the spot already taken (by a racing claimer, or a bit not yet cleared)
+    private final LongAdder lostClaims = new LongAdder();
+    // Candidate spots looked at by finds and claims, added once per call
+    private final LongAdder scannedSpots = new LongAdder();
+
+    private static final class Chunk {
+        private final ParkingSpot[] spots = new ParkingSpot[SPOTS_PER_CHUNK];
+        private final AtomicLongArray freeBits = new AtomicLongArray(WORDS_PER_CHUNK);
+    }
+
+    /**
+     * Registers a spot and returns the ordinal it was given.
+     * The spot is indexed as free unless it is already occupied.
+     */
+    public synchronized int add(ParkingSpot spot) {
+        int ordinal = size;
+        int chunkIndex = ordinal / SPOTS_PER_CHUNK;
+        Chunk[] current = chunks;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[chunkIndex] = new Chunk();
+        }
+        current[chunkIndex].spots[ordinal % SPOTS_PER_CHUNK] = spot;
+        chunks = current;
+        size = ordinal + 1;
+        if (!spot.isOccupied()) {
+            markFree(ordinal);
+        }
+        return ordinal;
+    }
+
+    public void markFree(int ordinal) {
+        Chunk chunk = chunks[ordinal / SPOTS_PER_CHUNK];
+        int bit = ordinal % SPOTS_PER_CHUNK;
+        long mask = 1L << (bit % Long.SIZE);
+        long previous = chunk.freeBits.getAndAccumulate(bit / Long.SIZE, mask, (word, m) -> word | m);
+        if ((previous & mask) == 0) {
+            freeCount.increment();
+        }
+    }
+
+    public void markOccupied(int ordinal) {
+        Chunk chunk = chunks[ordinal / SPOTS_PER_CHUNK];
+        int bit = ordinal % SPOTS_PER_CHUNK;
+        long mask = 1L << (bit % Long.SIZE);
+        long previous = chunk.freeBits.getAndAccumulate(bit / Long.SIZE, ~mask, (word, m) -> word & m);
+        if ((previous & mask) != 0) {
+            freeCount.decrement();
+        }
+    }
+
+    /**
+     * Returns the lowest-ordinal spot whose free bit is set, or null if none.
+     * A bit can briefly lag the spot's state, so callers must still claim the
+     * spot atomically; occupied spots seen here are skipped.
+     */
+    public ParkingSpot findFree() {
+        Chunk[] current = chunks;
+        int scanned = 0;
+        try {
+            for (Chunk chunk : current) {
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    long word = chunk.freeBits.get(w);
+                    while (word != 0) {
+                        int bit = Long.numberOfTrailingZeros(word);
+                        ParkingSpot spot = chunk.spots[w * Long.SIZE + bit];
+                        scanned++;
+                        if (spot != null && !spot.isOccupied()) {
+                            return spot;
+                        }
+                        word &= word - 1;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            scannedSpots.add(scanned);
+        }
+    }
+
+    /**
+     * Walks the free bits in ordinal order and claims the first spot whose
+     * CAS succeeds. A lost race moves on to the next candidate, so this only
+     * returns null when no spot in the index was free.
+     */
+    public ParkingSpot claimFree(Vehicle vehicle) {
+        return claimFree(vehicle, 0);
+    }
+
+    /**
+     * Same as claimFree(Vehicle), but the walk starts at the bitmap word
+     * holding startOrdinal and wraps around to the beginning. Callers that
+     * start at different ordinals contend for different words and spots.
+     */
+    public ParkingSpot claimFree(Vehicle vehicle, int startOrdinal) {
+        Chunk[] current = chunks;
+        int words = current.length * WORDS_PER_CHUNK;
+        int startWord = startOrdinal > 0 && startOrdinal < size ? startOrdinal / Long.SIZE : 0;
+        int scanned = 0;
+        try {
+            for (int i = 0; i < words; i++) {
+                int wordIndex = startWord + i < words ? startWord + i : startWord + i - words;
+                Chunk chunk = current[wordIndex / WORDS_PER_CHUNK];
+                int w = wordIndex % WORDS_PER_CHUNK;
+                long word = chunk.freeBits.get(w);
+                while (word != 0) {
+                    int bit = Long.numberOfTrailingZeros(word);
+                    ParkingSpot spot = chunk.spots[w * Long.SIZE + bit];
+                    scanned++;
+                    if (spot != null) {
+                        if (spot.tryClaim(vehicle)) {
+                            return spot;
+                        }
+                        lostClaims.increment();
+                    }
+                    word &= word - 1;
+                }
+            }
+            return null;
+        } finally {
+            scannedSpots.add(scanned);
+        }
+    }
+
+    /**
+     * Claims a free spot chosen uniformly at random. If the chosen spot is
+     * lost to another claimer, the first free spot from a random starting
+     * point is claimed instead, so this only returns null when no spot in
+     * the index was free.
+     */
+    public ParkingSpot claimRandom(Vehicle vehicle) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ParkingSpot candidate = pickRandom(random);
+        if (candidate != null) {
+            if (candidate.tryClaim(vehicle)) {
+                return candidate;
+            }
+            lostClaims.increment();
+        }
+        int spots = size;
+        return spots == 0 ? null : claimFree(vehicle, random.nextInt(spots));
+    }
+
+    /**
+     * Returns a free spot chosen uniformly at random, or null if none.
+     * Like findFree, the spot is not claimed.
+     */
+    public ParkingSpot findRandom() {
+        ParkingSpot candidate = pickRandom(ThreadLocalRandom.current());
+        return candidate != null ? candidate : findFree();
+    }
+
+    /**
+     * Probes a few random ordinals (each free spot is equally likely to be
+     * hit), and when the index is too full for that to pay off, picks the
+     * r-th set bit for a random r below the free count.
+     */
+    private ParkingSpot pickRandom(ThreadLocalRandom random) {
+        // Size first: its volatile write in add() published the chunk it refers to
+        int spots = size;
+        Chunk[] current = chunks;
+        if (spots == 0) {
+            return null;
+        }
+        scannedSpots.add(RANDOM_PROBES);
+        for (int probe = 0; probe < RANDOM_PROBES; probe++) {
+            int ordinal = random.nextInt(spots);
+            Chunk chunk = current[ordinal / SPOTS_PER_CHUNK];
+            int bit = ordinal % SPOTS_PER_CHUNK;
+            if ((chunk.freeBits.get(bit / Long.SIZE) & (1L << (bit % Long.SIZE))) != 0) {
+                ParkingSpot spot = chunk.spots[bit];
+                if (spot != null && !spot.isOccupied()) {
+                    return spot;
+                }
+            }
+        }
+
+        long free = freeCount.sum();
+        if (free <= 0) {
+            return null;
+        }
+        long rank = random.nextLong(free);
+        for (Chunk chunk : current) {
+            for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                long word = chunk.freeBits.get(w);
+                int bits = Long.bitCount(word);
+                if (rank >= bits) {
+                    rank -= bits;
+                    continue;
+                }
+                for (long skip = rank; skip > 0; skip--) {
+                    word &= word - 1;
+                }
+                ParkingSpot spot = chunk.spots[w * Long.SIZE + Long.numberOfTrailingZeros(word)];
+                return spot != null && !spot.isOccupied() ? spot : null;
+            }
+        }
+        // Bits were cleared while we counted
+        return null;
+    }
+
+    /**
+     * Claims spots for vehicles[from], vehicles[from + 1], ... in a single
+     * sweep over the free bits, writing each claimed spot to the matching
+     * position in {@code claimed}.
+     *
+     * @return The index of the first vehicle left without a spot
+     *         (vehicles.size() if every vehicle got one)
+     */
+    public int claimFree(List<Vehicle> vehicles, int from, ParkingSpot[] claimed) {
+        int next = from;
+        Chunk[] current = chunks;
+        int scanned = 0;
+        try {
+            for (Chunk chunk : current) {
+                for (int w = 0; w < WORDS_PER_CHUNK; w++) {
+                    long word = chunk.freeBits.get(w);
+                    while (word != 0) {
+                        if (next == vehicles.size()) {
+                            return next;
+                        }
+                        int bit = Long.numberOfTrailingZeros(word);
+                        ParkingSpot spot = chunk.spots[w * Long.SIZE + bit];
+                        scanned++;
+                        if (spot != null) {
+                            if (spot.tryClaim(vehicles.get(next))) {
+                                claimed[next++] = spot;
+                            } else {
+                                lostClaims.increment();
+                            }
+                        }
+                        word &= word - 1;
+                    }
+                }
+            }
+            return next;
+        } finally {
+            scannedSpots.add(scanned);
+        }
+    }
+
+    /**
+     * Number of free spots in this index. O(1); may trail a claim or release
+     * that is still in flight.
+     */
+    public long freeCount() {
+        return freeCount.sum();
+    }
+
+    /**
+     * Number of claim attempts that lost their spot to another claimer.
+     */
+    public long lostClaims() {
+        return lostClaims.sum();
+    }
+
+    /**
+     * Number of candidate spots looked at by finds and claims, including
+     * random probes that missed.
+     */
+    public long scannedSpots() {
+        return scannedSpots.sum();
+    }
+
+    public int size() {
+        return size;
+    }
+}
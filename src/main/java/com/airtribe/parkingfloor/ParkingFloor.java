@@ -1,63 +1,322 @@
 package com.airtribe.parkingfloor;
 
+import com.airtribe.ParkingLot;
 import com.airtribe.ParkingSpot;
 import com.airtribe.SpotType;
 import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
 import com.airtribe.displaypanel.FloorDisplayPanel;
+import com.airtribe.reservation.ReservationPool;
 
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
 
 public class ParkingFloor {
     private final String floorId;
     private final Map<SpotType, Set<ParkingSpot>> spotMap;
+    // Free-spot bitmaps per type, kept current by ParkingSpot.parkVehicle/removeVehicle
+    private final Map<SpotType, FreeSpotIndex> freeSpotIndexes;
+    // Advance bookings per type; walk-ins leave the spots they hold alone
+    private final Map<SpotType, ReservationPool> reservationPools;
+    private final Map<String, ParkingSpot> spotsById = new ConcurrentHashMap<>();
+    // Set by ParkingLot.addFloor so spots added later still reach the lot-wide registry
+    private volatile ParkingLot parkingLot;
     private final FloorDisplayPanel displayPanel;
     private volatile boolean underMaintenance;
-    private final ReadWriteLock maintenanceLock = new ReentrantReadWriteLock();
+    // Written only when maintenance is switched; entries read it optimistically and never block
+    private final StampedLock maintenanceLock = new StampedLock();
 
     public ParkingFloor(String floorId) {
         this.floorId = floorId;
         this.spotMap = new HashMap<>();
+        this.freeSpotIndexes = new EnumMap<>(SpotType.class);
+        this.reservationPools = new EnumMap<>(SpotType.class);
         this.displayPanel = new FloorDisplayPanel(floorId);
         this.underMaintenance = false;
         for (SpotType type : SpotType.values()) {
             spotMap.put(type, new HashSet<>());
+            FreeSpotIndex index = new FreeSpotIndex();
+            freeSpotIndexes.put(type, index);
+            reservationPools.put(type, new ReservationPool(index::size));
         }
     }
 
+    /**
+     * Adds a spot to this floor and, if the floor is already part of a lot,
+     * to the lot's spot registry.
+     *
+     * @throws IllegalArgumentException if a different spot with the same ID exists
+     */
     public void addSpot(ParkingSpot spot) {
+        ParkingSpot existing = spotsById.putIfAbsent(spot.getId(), spot);
+        if (existing == spot) {
+            return;
+        }
+        if (existing != null) {
+            throw new IllegalArgumentException("Duplicate spot ID on floor " + floorId + ": " + spot.getId());
+        }
         spotMap.get(spot.getSpotType()).add(spot);
+        FreeSpotIndex index = freeSpotIndexes.get(spot.getSpotType());
+        spot.bindIndex(this, index, index.add(spot));
+
+        ParkingLot lot = parkingLot;
+        if (lot != null) {
+            lot.registerSpot(spot);
+        }
+    }
+
+    /**
+     * Called by ParkingLot.addFloor. Registers every spot on this floor with
+     * the lot and routes spots added afterwards to it as well.
+     */
+    public void attachTo(ParkingLot lot) {
+        this.parkingLot = lot;
+        for (ParkingSpot spot : spotsById.values()) {
+            lot.registerSpot(spot);
+        }
     }
 
     /**
      * Finds an available spot for the vehicle.
-     * Thread-safe read operation.
+     * Thread-safe read operation. Compatible spot types are checked in
+     * SMALL, MEDIUM, LARGE order using the free-spot bitmaps, so the cost
+     * depends on the number of bitmap words rather than on occupancy.
      * 
      * @param vehicle The vehicle to find a spot for
      * @return Available ParkingSpot or null if none available
      */
     public ParkingSpot getAvailableSpot(Vehicle vehicle) {
-        maintenanceLock.readLock().lock();
-        try {
-            if (underMaintenance) {
-                return null;
+        long stamp = openStamp();
+        if (stamp == 0) {
+            return null;
+        }
+
+        for (SpotType type : SpotType.values()) {
+            if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+                continue;
             }
+            FreeSpotIndex index = freeSpotIndexes.get(type);
+            ParkingSpot spot = walkInAllowance(type, index) > 0 ? index.findFree() : null;
+            if (spot != null) {
+                return confirmFound(stamp, spot);
+            }
+        }
+        return null;
+    }
 
-            for (Map.Entry<SpotType, Set<ParkingSpot>> entry : spotMap.entrySet()) {
-                for (ParkingSpot spot : entry.getValue()) {
-                    if (spot.canFitVehicle(vehicle)) {
-                        return spot;
-                    }
-                }
+    /**
+     * Finds an available spot for the vehicle and claims it atomically.
+     * Candidates that lose a race are skipped, so null means no compatible
+     * spot on this floor was free (or the floor is under maintenance).
+     *
+     * @param vehicle The vehicle to park
+     * @return The claimed ParkingSpot, already holding the vehicle, or null
+     */
+    public ParkingSpot claimAvailableSpot(Vehicle vehicle) {
+        return claimAvailableSpot(vehicle, 0.0);
+    }
+
+    /**
+     * Same as claimAvailableSpot(Vehicle), but the search in each spot type
+     * starts part-way through the free-spot index and wraps around, so
+     * callers given different starting points rarely race for the same spot.
+     *
+     * @param vehicle The vehicle to park
+     * @param startAt Where to start, as a fraction (0 inclusive to 1 exclusive) of each index
+     * @return The claimed ParkingSpot, already holding the vehicle, or null
+     */
+    public ParkingSpot claimAvailableSpot(Vehicle vehicle, double startAt) {
+        long stamp = openStamp();
+        if (stamp == 0) {
+            return null;
+        }
+
+        for (SpotType type : SpotType.values()) {
+            if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+                continue;
+            }
+            FreeSpotIndex index = freeSpotIndexes.get(type);
+            if (walkInAllowance(type, index) <= 0) {
+                continue;
             }
+            ParkingSpot spot = index.claimFree(vehicle, (int) (startAt * index.size()));
+            if (spot != null) {
+                return confirmClaimed(stamp, spot);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Claims a free spot of the given type, chosen uniformly at random.
+     *
+     * @param vehicle The vehicle to park
+     * @param type The spot type to claim from; must fit the vehicle
+     * @return The claimed ParkingSpot, or null if none of that type was free
+     *         (or the floor is under maintenance)
+     */
+    public ParkingSpot claimRandomSpot(Vehicle vehicle, SpotType type) {
+        if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+            return null;
+        }
+        long stamp = openStamp();
+        FreeSpotIndex index = freeSpotIndexes.get(type);
+        if (stamp == 0 || walkInAllowance(type, index) <= 0) {
             return null;
-        } finally {
-            maintenanceLock.readLock().unlock();
         }
+        return confirmClaimed(stamp, index.claimRandom(vehicle));
+    }
+
+    /**
+     * Returns a free spot of the given type chosen uniformly at random,
+     * without claiming it, or null if none.
+     */
+    public ParkingSpot findRandomSpot(Vehicle vehicle, SpotType type) {
+        if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+            return null;
+        }
+        long stamp = openStamp();
+        FreeSpotIndex index = freeSpotIndexes.get(type);
+        if (stamp == 0 || walkInAllowance(type, index) <= 0) {
+            return null;
+        }
+        return confirmFound(stamp, index.findRandom());
+    }
+
+    /**
+     * Claims spots on this floor for a batch of vehicles of the same type in
+     * one pass over the free-spot indexes, starting with vehicles[from].
+     * Claimed spots are written to the matching positions in {@code claimed}.
+     *
+     * @return The index of the first vehicle left without a spot
+     */
+    public int claimAvailableSpots(List<Vehicle> vehicles, int from, ParkingSpot[] claimed) {
+        if (from == vehicles.size()) {
+            return from;
+        }
+        long stamp = openStamp();
+        if (stamp == 0) {
+            return from;
+        }
+
+        VehicleType vehicleType = vehicles.get(from).getType();
+        int next = from;
+        for (SpotType type : SpotType.values()) {
+            if (next == vehicles.size()) {
+                break;
+            }
+            if (ParkingSpot.isCompatible(type, vehicleType)) {
+                next = claimFromIndex(type, vehicles, next, claimed);
+            }
+        }
+        return confirmClaimed(stamp, claimed, from, next);
+    }
+
+    /**
+     * Returns the lowest-ordinal free spot of the given type without
+     * claiming it, or null if none (or the type doesn't fit the vehicle).
+     */
+    public ParkingSpot findSpotOfType(Vehicle vehicle, SpotType type) {
+        if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+            return null;
+        }
+        long stamp = openStamp();
+        FreeSpotIndex index = freeSpotIndexes.get(type);
+        if (stamp == 0 || walkInAllowance(type, index) <= 0) {
+            return null;
+        }
+        return confirmFound(stamp, index.findFree());
+    }
+
+    /**
+     * Claims the lowest-ordinal free spot of the given type.
+     *
+     * @return The claimed spot, or null if none of that type was free (or
+     *         the type doesn't fit the vehicle, or the floor is under maintenance)
+     */
+    public ParkingSpot claimSpotOfType(Vehicle vehicle, SpotType type) {
+        if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+            return null;
+        }
+        long stamp = openStamp();
+        FreeSpotIndex index = freeSpotIndexes.get(type);
+        if (stamp == 0 || walkInAllowance(type, index) <= 0) {
+            return null;
+        }
+        return confirmClaimed(stamp, index.claimFree(vehicle));
+    }
+
+    /**
+     * Like claimAvailableSpots, but only from spots of the given type.
+     *
+     * @return The index of the first vehicle left without a spot
+     */
+    public int claimSpotsOfType(List<Vehicle> vehicles, int from, ParkingSpot[] claimed, SpotType type) {
+        if (from == vehicles.size() || !ParkingSpot.isCompatible(type, vehicles.get(from).getType())) {
+            return from;
+        }
+        long stamp = openStamp();
+        if (stamp == 0) {
+            return from;
+        }
+        return confirmClaimed(stamp, claimed, from, claimFromIndex(type, vehicles, from, claimed));
+    }
+
+    /**
+     * Claims spots of one type for vehicles[from...], stopping short of the
+     * spots held for reservations. Caller validates its maintenance stamp.
+     */
+    private int claimFromIndex(SpotType type, List<Vehicle> vehicles, int from, ParkingSpot[] claimed) {
+        FreeSpotIndex index = freeSpotIndexes.get(type);
+        long allowance = walkInAllowance(type, index);
+        if (allowance <= 0) {
+            return from;
+        }
+        List<Vehicle> allowed = allowance >= vehicles.size() - from
+                ? vehicles : vehicles.subList(0, from + (int) allowance);
+        return index.claimFree(allowed, from, claimed);
+    }
+
+    /**
+     * Claims a spot of the given type for a reservation holder, including
+     * spots held back from walk-ins. Called by ReservationBook.checkIn.
+     *
+     * @return The claimed spot, or null if none of that type was free (or
+     *         the floor is under maintenance)
+     */
+    public ParkingSpot claimReservedSpot(Vehicle vehicle, SpotType type) {
+        if (!ParkingSpot.isCompatible(type, vehicle.getType())) {
+            return null;
+        }
+        long stamp = openStamp();
+        if (stamp == 0) {
+            return null;
+        }
+        return confirmClaimed(stamp, freeSpotIndexes.get(type).claimFree(vehicle));
+    }
+
+    /**
+     * Number of free spots of the type a walk-in may take: the free count
+     * less the spots held for reservation holders due soon. Two walk-ins
+     * racing for the last unheld spot can both see it, so a hold is kept
+     * to within the number of concurrent gates, not exactly.
+     */
+    private long walkInAllowance(SpotType type, FreeSpotIndex index) {
+        int held = reservationPools.get(type).heldSpots();
+        return held == 0 ? Long.MAX_VALUE : index.freeCount() - held;
+    }
+
+    /**
+     * Returns the advance-booking pool for spots of the given type.
+     */
+    public ReservationPool getReservationPool(SpotType type) {
+        return reservationPools.get(type);
     }
 
     public Set<ParkingSpot> getAllSpots() {
@@ -72,68 +331,165 @@ public class ParkingFloor {
         return floorId;
     }
 
+    /**
+     * Returns the lot this floor was added to, or null if it isn't in a lot yet.
+     */
+    public ParkingLot getParkingLot() {
+        return parkingLot;
+    }
+
     public boolean isUnderMaintenance() {
         return underMaintenance;
     }
 
     /**
      * Sets the maintenance status of the floor.
-     * Thread-safe write operation.
+     * Thread-safe write operation. Doesn't wait for entries in progress:
+     * once it returns, a lookup or claim on this floor that started before
+     * it either has already returned or will find its stamp invalid and
+     * return null (releasing anything it claimed), so the floor is drained
+     * of new parkings. Entries on other floors are unaffected. Setting the
+     * status it already has does nothing, so it doesn't roll back claims.
      * 
      * @param status true to set under maintenance, false otherwise
      */
     public void setUnderMaintenance(boolean status) {
-        maintenanceLock.writeLock().lock();
+        if (status == underMaintenance) {
+            return;
+        }
+        long stamp = maintenanceLock.writeLock();
         try {
             this.underMaintenance = status;
         } finally {
-            maintenanceLock.writeLock().unlock();
+            maintenanceLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Starts an optimistic read of the maintenance status.
+     *
+     * @return A stamp to check with confirmFound/confirmClaimed once the
+     *         lookup is done, or 0 if the floor is closed to entries (under
+     *         maintenance, or being switched)
+     */
+    private long openStamp() {
+        long stamp = maintenanceLock.tryOptimisticRead();
+        return stamp == 0 || underMaintenance ? 0 : stamp;
+    }
+
+    /**
+     * Returns the spot if maintenance wasn't switched since the stamp was
+     * taken, or null.
+     */
+    private ParkingSpot confirmFound(long stamp, ParkingSpot spot) {
+        return maintenanceLock.validate(stamp) ? spot : null;
+    }
+
+    /**
+     * Like confirmFound, but the spot was already claimed, so it is
+     * released again if maintenance was switched meanwhile.
+     */
+    private ParkingSpot confirmClaimed(long stamp, ParkingSpot spot) {
+        if (spot == null || maintenanceLock.validate(stamp)) {
+            return spot;
         }
+        spot.release();
+        return null;
+    }
+
+    /**
+     * Batch form of confirmClaimed for claimed[from...next).
+     *
+     * @return next, or from if the claims were rolled back
+     */
+    private int confirmClaimed(long stamp, ParkingSpot[] claimed, int from, int next) {
+        if (next == from || maintenanceLock.validate(stamp)) {
+            return next;
+        }
+        for (int i = from; i < next; i++) {
+            claimed[i].release();
+            claimed[i] = null;
+        }
+        return from;
     }
 
     public Map<SpotType, Set<ParkingSpot>> getSpotMap() {
         return spotMap;
     }
 
+    /**
+     * Returns the number of free spots of the given type. O(1), read from the
+     * counter the free-spot index maintains on park/unpark.
+     */
+    public long getAvailableSpotCount(SpotType type) {
+        return freeSpotIndexes.get(type).freeCount();
+    }
+
+    /**
+     * Returns the number of free spots on this floor across all types.
+     */
+    public long getAvailableSpotCount() {
+        long available = 0;
+        for (FreeSpotIndex index : freeSpotIndexes.values()) {
+            available += index.freeCount();
+        }
+        return available;
+    }
+
+    /**
+     * Returns the number of spots on this floor, free or not.
+     */
+    public long getSpotCount() {
+        long spots = 0;
+        for (FreeSpotIndex index : freeSpotIndexes.values()) {
+            spots += index.size();
+        }
+        return spots;
+    }
+
+    /**
+     * Number of spot claims on this floor that lost a race to another
+     * claimer and had to try the next candidate.
+     */
+    public long getLostClaimCount() {
+        long lost = 0;
+        for (FreeSpotIndex index : freeSpotIndexes.values()) {
+            lost += index.lostClaims();
+        }
+        return lost;
+    }
+
+    /**
+     * Number of candidate spots the free-spot indexes on this floor looked
+     * at while finding and claiming spots.
+     */
+    public long getScannedSpotCount() {
+        long scanned = 0;
+        for (FreeSpotIndex index : freeSpotIndexes.values()) {
+            scanned += index.scannedSpots();
+        }
+        return scanned;
+    }
+
     public void showFloorDisplay() {
-        maintenanceLock.readLock().lock();
-        try {
-            displayPanel.displayAvailableSpots(spotMap, underMaintenance);
-        } finally {
-            maintenanceLock.readLock().unlock();
+        Map<SpotType, Long> availableByType = new EnumMap<>(SpotType.class);
+        for (Map.Entry<SpotType, FreeSpotIndex> entry : freeSpotIndexes.entrySet()) {
+            availableByType.put(entry.getKey(), entry.getValue().freeCount());
         }
+        displayPanel.displayAvailableSpots(availableByType, underMaintenance);
     }
 
     /**
      * Checks if the floor is full.
-     * Thread-safe read operation.
+     * Thread-safe read operation; O(1) using the maintained free counters.
      * 
      * @return true if all spots are occupied, false otherwise
      */
     public boolean isFull() {
-        maintenanceLock.readLock().lock();
-        try {
-            for (Set<ParkingSpot> spots : spotMap.values()) {
-                for (ParkingSpot spot : spots) {
-                    if (!spot.isOccupied()) {
-                        return false; // At least one spot is available
-                    }
-                }
-            }
-            return true; // All spots are occupied
-        } finally {
-            maintenanceLock.readLock().unlock();
-        }
+        return getAvailableSpotCount() == 0;
     }
 
     public ParkingSpot getSpotById(String spotId) {
-        for (Set<ParkingSpot> spots : spotMap.values()) {
-            for (ParkingSpot spot : spots) {
-                if (spot.getId().equals(spotId)) {
-                    return spot;
-                }
-            }
-        }
-        return null;
+        return spotsById.get(spotId);
     }
 }
@@ -0,0 +1,144 @@
+package com.airtribe.parkingstrategy;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts each vehicle in the smallest-fitting spot type the lot still has
+ * free, so larger vehicles' spots aren't used up by smaller ones.
+ *
+ * Spot types are tried in a fixed preference order per vehicle type
+ * (by default a car prefers MEDIUM and only falls back to SMALL, which
+ * motorcycles need). Each type is searched across every floor before the
+ * next type is tried; within a floor and type, the free-spot index hands out
+ * the lowest-ordinal free spot, so each type's bitmap acts as an ordered
+ * free list and spots fill front to back.
+ */
+public class BestFitSpotStrategy implements ParkingStrategy {
+    private final Map<VehicleType, SpotType[]> preferences = new EnumMap<>(VehicleType.class);
+
+    /**
+     * Uses the default preferences: MOTORCYCLE in SMALL; CAR in MEDIUM,
+     * then SMALL; BUS and TRUCK in LARGE.
+     */
+    public BestFitSpotStrategy() {
+        this(defaultPreferences());
+    }
+
+    /**
+     * @param preferences Spot types to try, in order, for each vehicle type;
+     *                    vehicle types left out get no spot
+     * @throws IllegalArgumentException if a listed spot type can't hold the
+     *         vehicle type, or is listed twice
+     */
+    public BestFitSpotStrategy(Map<VehicleType, List<SpotType>> preferences) {
+        for (Map.Entry<VehicleType, List<SpotType>> entry : preferences.entrySet()) {
+            VehicleType vehicleType = entry.getKey();
+            List<SpotType> order = entry.getValue();
+            for (int i = 0; i < order.size(); i++) {
+                SpotType spotType = order.get(i);
+                if (!ParkingSpot.isCompatible(spotType, vehicleType)) {
+                    throw new IllegalArgumentException(spotType + " spots cannot hold a " + vehicleType);
+                }
+                if (order.indexOf(spotType) != i) {
+                    throw new IllegalArgumentException(spotType + " is listed twice for " + vehicleType);
+                }
+            }
+            this.preferences.put(vehicleType, order.toArray(new SpotType[0]));
+        }
+    }
+
+    private static Map<VehicleType, List<SpotType>> defaultPreferences() {
+        Map<VehicleType, List<SpotType>> preferences = new EnumMap<>(VehicleType.class);
+        preferences.put(VehicleType.MOTORCYCLE, List.of(SpotType.SMALL));
+        preferences.put(VehicleType.CAR, List.of(SpotType.MEDIUM, SpotType.SMALL));
+        preferences.put(VehicleType.BUS, List.of(SpotType.LARGE));
+        preferences.put(VehicleType.TRUCK, List.of(SpotType.LARGE));
+        return preferences;
+    }
+
+    /**
+     * Spot types tried for the vehicle type, most preferred first.
+     */
+    public List<SpotType> getPreferences(VehicleType vehicleType) {
+        SpotType[] order = preferences.get(vehicleType);
+        return order == null ? List.of() : List.of(order);
+    }
+
+    @Override
+    public ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        SpotType[] order = preferences.get(vehicle.getType());
+        if (order == null) {
+            return null;
+        }
+        for (SpotType type : order) {
+            for (ParkingFloor floor : parkingLot.getFloors()) {
+                if (floor.isUnderMaintenance() || floor.getAvailableSpotCount(type) == 0) continue;
+                ParkingSpot spot = floor.findSpotOfType(vehicle, type);
+                if (spot != null) return spot;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ParkingSpot claimSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        SpotType[] order = preferences.get(vehicle.getType());
+        if (order == null) {
+            return null;
+        }
+        for (SpotType type : order) {
+            for (ParkingFloor floor : parkingLot.getFloors()) {
+                if (floor.isUnderMaintenance() || floor.getAvailableSpotCount(type) == 0) continue;
+                ParkingSpot spot = floor.claimSpotOfType(vehicle, type);
+                if (spot != null) return spot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Groups the batch by vehicle type and claims each group in one sweep
+     * per floor and spot type, in preference order.
+     */
+    @Override
+    public ParkingSpot[] claimSpots(List<Vehicle> vehicles, ParkingLot parkingLot) {
+        ParkingSpot[] claimed = new ParkingSpot[vehicles.size()];
+        Map<VehicleType, List<Integer>> positionsByType = new EnumMap<>(VehicleType.class);
+        for (int i = 0; i < vehicles.size(); i++) {
+            positionsByType.computeIfAbsent(vehicles.get(i).getType(), type -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<VehicleType, List<Integer>> entry : positionsByType.entrySet()) {
+            SpotType[] order = preferences.get(entry.getKey());
+            if (order == null) continue;
+            List<Integer> positions = entry.getValue();
+            List<Vehicle> group = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                group.add(vehicles.get(position));
+            }
+            ParkingSpot[] groupClaimed = new ParkingSpot[group.size()];
+            int next = 0;
+            for (SpotType type : order) {
+                for (ParkingFloor floor : parkingLot.getFloors()) {
+                    if (next == group.size()) break;
+                    if (floor.isUnderMaintenance() || floor.getAvailableSpotCount(type) == 0) continue;
+                    next = floor.claimSpotsOfType(group, next, groupClaimed, type);
+                }
+            }
+            for (int i = 0; i < next; i++) {
+                claimed[positions.get(i)] = groupClaimed[i];
+            }
+        }
+        return claimed;
+    }
+}
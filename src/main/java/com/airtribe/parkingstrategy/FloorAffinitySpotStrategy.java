@@ -0,0 +1,92 @@
+package com.airtribe.parkingstrategy;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads concurrent gates over the lot instead of sending them all to the
+ * first free spot on floor 0.
+ *
+ * Each gate thread gets a slot number the first time it parks a vehicle.
+ * The slot picks a home floor (slot % floors) and a starting point inside
+ * that floor's free-spot indexes (golden-ratio steps, so gates sharing a
+ * floor start far apart). A gate claims from its starting point onwards,
+ * then tries the following floors in order, wrapping around, so the search
+ * is deterministic and still finds any free compatible spot.
+ *
+ * The affinity only holds for long-lived gate threads (GateService
+ * platformThreads, or a thread per gate). When every request runs on a new
+ * thread, as with GateService virtualThreads, each request gets the next
+ * slot, so requests are spread round-robin over floors and starting points
+ * instead of sticking to a gate's home floor.
+ */
+public class FloorAffinitySpotStrategy implements ParkingStrategy {
+    // Fractional part of the golden ratio: successive multiples are evenly spread over [0, 1)
+    private static final double GOLDEN_FRACTION = 0.6180339887498949;
+
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final ThreadLocal<GateAffinity> affinity =
+            ThreadLocal.withInitial(() -> new GateAffinity(nextSlot.getAndIncrement()));
+
+    /**
+     * A gate's slot, fixed for the life of the gate thread.
+     */
+    private static final class GateAffinity {
+        private final int slot;
+
+        GateAffinity(int slot) {
+            // The counter wraps negative after 2^31 threads; keep slots non-negative
+            this.slot = slot & Integer.MAX_VALUE;
+        }
+
+        int homeFloor(int floors) {
+            return Math.floorMod(slot, floors);
+        }
+
+        double startAt(int floors) {
+            double position = (slot / floors) * GOLDEN_FRACTION;
+            return position - Math.floor(position);
+        }
+    }
+
+    @Override
+    public ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        List<ParkingFloor> floors = parkingLot.getFloors();
+        int count = floors.size();
+        if (count == 0) {
+            return null;
+        }
+        int home = affinity.get().homeFloor(count);
+        for (int i = 0; i < count; i++) {
+            ParkingFloor floor = floors.get(Math.floorMod(home + i, count));
+            if (floor.isUnderMaintenance()) continue;
+            ParkingSpot spot = floor.getAvailableSpot(vehicle);
+            if (spot != null) return spot;
+        }
+        return null;
+    }
+
+    @Override
+    public ParkingSpot claimSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        List<ParkingFloor> floors = parkingLot.getFloors();
+        int count = floors.size();
+        if (count == 0) {
+            return null;
+        }
+        GateAffinity gate = affinity.get();
+        int home = gate.homeFloor(count);
+        double startAt = gate.startAt(count);
+        for (int i = 0; i < count; i++) {
+            ParkingFloor floor = floors.get(Math.floorMod(home + i, count));
+            if (floor.isUnderMaintenance()) continue;
+            ParkingSpot spot = floor.claimAvailableSpot(vehicle, startAt);
+            if (spot != null) return spot;
+        }
+        return null;
+    }
+}
@@ -1,18 +1,65 @@
-package com.airtribe.parkingstrategy;
-
-import com.airtribe.ParkingLot;
-import com.airtribe.ParkingSpot;
-import com.airtribe.Vehicle;
-import com.airtribe.parkingfloor.ParkingFloor;
-
-public class NearestAvailableSpotStrategy implements ParkingStrategy {
-    @Override
-    public ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot) {
-        for (ParkingFloor floor : parkingLot.getFloors()) {
-            if (floor.isUnderMaintenance()) continue;
-            ParkingSpot spot = floor.getAvailableSpot(vehicle);
-            if (spot != null) return spot;
-        }
-        return null;
-    }
-}
+package com.airtribe.parkingstrategy;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class NearestAvailableSpotStrategy implements ParkingStrategy {
+    @Override
+    public ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        for (ParkingFloor floor : parkingLot.getFloors()) {
+            if (floor.isUnderMaintenance()) continue;
+            ParkingSpot spot = floor.getAvailableSpot(vehicle);
+            if (spot != null) return spot;
+        }
+        return null;
+    }
+
+    @Override
+    public ParkingSpot claimSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        for (ParkingFloor floor : parkingLot.getFloors()) {
+            if (floor.isUnderMaintenance()) continue;
+            ParkingSpot spot = floor.claimAvailableSpot(vehicle);
+            if (spot != null) return spot;
+        }
+        return null;
+    }
+
+    /**
+     * Fills floors in order, claiming spots for all vehicles of one type in a
+     * single sweep of each floor's free-spot index.
+     */
+    @Override
+    public ParkingSpot[] claimSpots(List<Vehicle> vehicles, ParkingLot parkingLot) {
+        ParkingSpot[] claimed = new ParkingSpot[vehicles.size()];
+        Map<VehicleType, List<Integer>> positionsByType = new EnumMap<>(VehicleType.class);
+        for (int i = 0; i < vehicles.size(); i++) {
+            positionsByType.computeIfAbsent(vehicles.get(i).getType(), type -> new ArrayList<>()).add(i);
+        }
+
+        for (List<Integer> positions : positionsByType.values()) {
+            List<Vehicle> group = new ArrayList<>(positions.size());
+            for (int position : positions) {
+                group.add(vehicles.get(position));
+            }
+            ParkingSpot[] groupClaimed = new ParkingSpot[group.size()];
+            int next = 0;
+            for (ParkingFloor floor : parkingLot.getFloors()) {
+                if (next == group.size()) break;
+                if (floor.isUnderMaintenance()) continue;
+                next = floor.claimAvailableSpots(group, next, groupClaimed);
+            }
+            for (int i = 0; i < next; i++) {
+                claimed[positions.get(i)] = groupClaimed[i];
+            }
+        }
+        return claimed;
+    }
+}
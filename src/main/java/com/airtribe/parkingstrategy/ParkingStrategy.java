@@ -1,9 +1,53 @@
-package com.airtribe.parkingstrategy;
-
-import com.airtribe.ParkingLot;
-import com.airtribe.ParkingSpot;
-import com.airtribe.Vehicle;
-
-public interface ParkingStrategy {
-    ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot);
-}
+package com.airtribe.parkingstrategy;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+
+import java.util.List;
+
+public interface ParkingStrategy {
+    /**
+     * Picks a free spot for the vehicle without claiming it.
+     * Implementations should only return spots that are currently free.
+     */
+    ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot);
+
+    /**
+     * Picks a spot and claims it for the vehicle atomically.
+     * A lost race moves on to another candidate instead of failing, so null
+     * means no compatible spot was free. The default keeps calling findSpot;
+     * strategies that can claim while scanning should override it.
+     *
+     * @return The claimed spot, already holding the vehicle, or null
+     */
+    default ParkingSpot claimSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        ParkingSpot lost = null;
+        ParkingSpot spot;
+        while ((spot = findSpot(vehicle, parkingLot)) != null) {
+            if (spot.tryClaim(vehicle)) {
+                return spot;
+            }
+            // findSpot handing back the spot we just lost while it's still taken can't make progress
+            if (spot == lost) {
+                return null;
+            }
+            lost = spot;
+        }
+        return null;
+    }
+
+    /**
+     * Claims spots for a batch of vehicles. The result is aligned with the
+     * input: element i is the spot claimed for vehicles[i], or null if none
+     * was free. The default claims one vehicle at a time; strategies that
+     * can allocate a whole batch in one pass should override it.
+     */
+    default ParkingSpot[] claimSpots(List<Vehicle> vehicles, ParkingLot parkingLot) {
+        ParkingSpot[] claimed = new ParkingSpot[vehicles.size()];
+        for (int i = 0; i < claimed.length; i++) {
+            claimed[i] = claimSpot(vehicles.get(i), parkingLot);
+        }
+        return claimed;
+    }
+}
@@ -1,25 +1,92 @@
-package com.airtribe.parkingstrategy;
-
-import com.airtribe.ParkingLot;
-import com.airtribe.ParkingSpot;
-import com.airtribe.Vehicle;
-import com.airtribe.parkingfloor.ParkingFloor;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-public class RandomSpotStrategy implements ParkingStrategy {
-    @Override
-    public ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot) {
-        List<ParkingFloor> floors = new ArrayList<>(parkingLot.getFloors());
-        Collections.shuffle(floors);
-        for (ParkingFloor floor : floors) {
-            if (floor.isUnderMaintenance()) continue;
-
-            ParkingSpot spot = floor.getAvailableSpot(vehicle);
-            if (spot != null) return spot;
-        }
-        return null;
-    }
-}
+package com.airtribe.parkingstrategy;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingfloor.ParkingFloor;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Places each vehicle in a compatible free spot chosen uniformly at random
+ * from the whole lot.
+ *
+ * A floor and spot type are picked with probability proportional to their
+ * free-spot counters, then the floor's free-spot index picks uniformly among
+ * its free spots of that type. If the counters moved under us, the floors
+ * are swept from a random floor and a random offset within each. Uses
+ * ThreadLocalRandom and indexed loops, so there is no shared RNG and no
+ * per-call allocation.
+ */
+public class RandomSpotStrategy implements ParkingStrategy {
+    private static final SpotType[] SPOT_TYPES = SpotType.values();
+
+    @Override
+    public ParkingSpot findSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        return place(vehicle, parkingLot, false);
+    }
+
+    @Override
+    public ParkingSpot claimSpot(Vehicle vehicle, ParkingLot parkingLot) {
+        return place(vehicle, parkingLot, true);
+    }
+
+    private ParkingSpot place(Vehicle vehicle, ParkingLot parkingLot, boolean claim) {
+        List<ParkingFloor> floors = parkingLot.getFloors();
+        int count = floors.size();
+        if (count == 0) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long free = 0;
+        for (int f = 0; f < count; f++) {
+            free += compatibleFree(floors.get(f), vehicle);
+        }
+        if (free > 0) {
+            long target = random.nextLong(free);
+            for (int f = 0; f < count && target >= 0; f++) {
+                ParkingFloor floor = floors.get(f);
+                if (floor.isUnderMaintenance()) continue;
+                for (SpotType type : SPOT_TYPES) {
+                    if (!ParkingSpot.isCompatible(type, vehicle.getType())) continue;
+                    long typeFree = floor.getAvailableSpotCount(type);
+                    if (target < typeFree) {
+                        ParkingSpot spot = claim ? floor.claimRandomSpot(vehicle, type)
+                                : floor.findRandomSpot(vehicle, type);
+                        if (spot != null) return spot;
+                        // Taken in the meantime; fall through to the sweep
+                        target = -1;
+                        break;
+                    }
+                    target -= typeFree;
+                }
+            }
+        }
+
+        int start = random.nextInt(count);
+        for (int i = 0; i < count; i++) {
+            ParkingFloor floor = floors.get(start + i < count ? start + i : start + i - count);
+            if (floor.isUnderMaintenance()) continue;
+            ParkingSpot spot = claim ? floor.claimAvailableSpot(vehicle, random.nextDouble())
+                    : floor.getAvailableSpot(vehicle);
+            if (spot != null) return spot;
+        }
+        return null;
+    }
+
+    private static long compatibleFree(ParkingFloor floor, Vehicle vehicle) {
+        if (floor.isUnderMaintenance()) {
+            return 0;
+        }
+        long free = 0;
+        for (SpotType type : SPOT_TYPES) {
+            if (ParkingSpot.isCompatible(type, vehicle.getType())) {
+                free += floor.getAvailableSpotCount(type);
+            }
+        }
+        return free;
+    }
+}
@@ -1,44 +1,131 @@
-package com.airtribe.parkingticket;
-
-import com.airtribe.Vehicle;
-
-public class ParkingTicket {
-    private final String ticketId;
-    private final Vehicle vehicle;
-    private final String spotId;
-    private final String spotType;
-    private final long entryTime;
-
-    public ParkingTicket(String ticketId, Vehicle vehicle, String spotId, String spotType) {
-        this.ticketId = ticketId;
-        this.vehicle = vehicle;
-        this.spotId = spotId;
-        this.spotType = spotType;
-        this.entryTime = System.currentTimeMillis();
-    }
-
-    public String getTicketId() {
-        return ticketId;
-    }
-
-    public Vehicle getVehicle() {
-        return vehicle;
-    }
-
-    public String getSpotId() {
-        return spotId;
-    }
-
-    public String getSpotType() {
-        return spotType;
-    }
-
-    public long getEntryTime() {
-        return entryTime;
-    }
-
-    public String printTicket() {
-        return "Ticket ID: " + ticketId + ", Vehicle: " + vehicle.getLicenseNumber()
-                + ", Spot ID: " + spotId + ", Spot Type: " + spotType + ", Entry Time: " + entryTime;
-    }
-}
+package com.airtribe.parkingticket;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.coststrategy.HourlyRates;
+
+public class ParkingTicket {
+    // Rendered lazily from ticketNumber when the ticket was issued with a numeric ID
+    private String ticketId;
+    // Compact numeric ID (see TicketIds), or -1 for tickets created with a text ID
+    private final long ticketNumber;
+    private final Vehicle vehicle;
+    private final String spotId;
+    private final SpotType spotType;
+    // Standard hourly rate for this vehicle in this spot type, looked up once at entry
+    private final double hourlyRate;
+    private final long entryTime;
+    // Direct handle to the spot so exit doesn't need to resolve spotId; may be null
+    private final ParkingSpot spot;
+
+    public ParkingTicket(String ticketId, Vehicle vehicle, String spotId, SpotType spotType) {
+        this(ticketId, -1, vehicle, spotId, spotType, null);
+    }
+
+    public ParkingTicket(String ticketId, Vehicle vehicle, ParkingSpot spot) {
+        this(ticketId, -1, vehicle, spot.getId(), spot.getSpotType(), spot);
+    }
+
+    public ParkingTicket(long ticketNumber, Vehicle vehicle, ParkingSpot spot) {
+        this(null, ticketNumber, vehicle, spot.getId(), spot.getSpotType(), spot);
+    }
+
+    /**
+     * Recreates a ticket issued earlier, keeping its ID and entry time
+     * (used when restoring state from the ticket journal).
+     *
+     * @param ticketNumber Numeric ID, or -1 if the ticket only has a text ID
+     * @param ticketId Text ID; may be null when ticketNumber is set
+     */
+    public ParkingTicket(long ticketNumber, String ticketId, Vehicle vehicle, ParkingSpot spot, long entryTime) {
+        this(ticketId, ticketNumber, vehicle, spot.getId(), spot.getSpotType(), spot, entryTime);
+        if (ticketNumber < 0 && ticketId == null) {
+            throw new IllegalArgumentException("Ticket needs a ticket number or a ticket ID");
+        }
+    }
+
+    /**
+     * Recreates a ticket held somewhere without a spot handle in this JVM,
+     * e.g. one owned by a lot in another process, keeping its entry time.
+     */
+    public ParkingTicket(String ticketId, Vehicle vehicle, String spotId, SpotType spotType, long entryTime) {
+        this(ticketId, -1, vehicle, spotId, spotType, null, entryTime);
+        if (ticketId == null) {
+            throw new IllegalArgumentException("Ticket ID cannot be null");
+        }
+    }
+
+    private ParkingTicket(String ticketId, long ticketNumber, Vehicle vehicle, String spotId,
+                          SpotType spotType, ParkingSpot spot) {
+        this(ticketId, ticketNumber, vehicle, spotId, spotType, spot, System.currentTimeMillis());
+    }
+
+    private ParkingTicket(String ticketId, long ticketNumber, Vehicle vehicle, String spotId,
+                          SpotType spotType, ParkingSpot spot, long entryTime) {
+        if (vehicle == null || spotType == null) {
+            throw new IllegalArgumentException("Vehicle and spot type cannot be null");
+        }
+        this.ticketId = ticketId;
+        this.ticketNumber = ticketNumber;
+        this.vehicle = vehicle;
+        this.spotId = spotId;
+        this.spotType = spotType;
+        this.hourlyRate = HourlyRates.of(vehicle.getType(), spotType);
+        this.spot = spot;
+        this.entryTime = entryTime;
+    }
+
+    public String getTicketId() {
+        // Racing threads render the same immutable String, so no synchronization is needed
+        String id = ticketId;
+        if (id == null) {
+            id = TicketIds.format(ticketNumber);
+            ticketId = id;
+        }
+        return id;
+    }
+
+    /**
+     * Returns the compact numeric ID, or -1 if this ticket only has a text ID.
+     */
+    public long getTicketNumber() {
+        return ticketNumber;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public String getSpotId() {
+        return spotId;
+    }
+
+    public SpotType getSpotType() {
+        return spotType;
+    }
+
+    /**
+     * Returns the standard hourly rate for this ticket's vehicle and spot type.
+     */
+    public double getHourlyRate() {
+        return hourlyRate;
+    }
+
+    /**
+     * Returns the spot this ticket was issued for, or null if the ticket was
+     * created from a spot ID only.
+     */
+    public ParkingSpot getSpot() {
+        return spot;
+    }
+
+    public long getEntryTime() {
+        return entryTime;
+    }
+
+    public String printTicket() {
+        return "Ticket ID: " + getTicketId() + ", Vehicle: " + vehicle.getLicenseNumber()
+                + ", Spot ID: " + spotId + ", Spot Type: " + spotType + ", Entry Time: " + entryTime;
+    }
+}
@@ -1,71 +1,153 @@
-package com.airtribe.parkingticket;
-
-import com.airtribe.ParkingSpot;
-import com.airtribe.Vehicle;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
-
-/**
- * ParkingTicketGenerator is responsible for generating parking tickets
- * with unique IDs and proper formatting.
- */
-public class ParkingTicketGenerator {
-    private static final AtomicInteger ticketCounter = new AtomicInteger(0);
-    private static final String TICKET_PREFIX = "PT";
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
-
-    /**
-     * Generates a new parking ticket for the given vehicle and parking spot.
-     *
-     * @param vehicle The vehicle for which the ticket is being generated
-     * @param parkingSpot The parking spot where the vehicle is parked
-     * @return A new ParkingTicket instance
-     * @throws IllegalArgumentException if vehicle or parkingSpot is null
-     */
-    public ParkingTicket generateTicket(Vehicle vehicle, ParkingSpot parkingSpot) {
-        if (vehicle == null) {
-            throw new IllegalArgumentException("Vehicle cannot be null");
-        }
-        if (parkingSpot == null) {
-            throw new IllegalArgumentException("Parking spot cannot be null");
-        }
-
-        String ticketId = generateTicketId();
-        return new ParkingTicket(
-                ticketId,
-                vehicle,
-                parkingSpot.getId(),
-                parkingSpot.getSpotType().name()
-        );
-    }
-
-    /**
-     * Generates a unique ticket ID using current date and counter.
-     * Format: PT-YYYYMMDD-NNNN
-     *
-     * @return A unique ticket ID
-     */
-    private String generateTicketId() {
-        String dateStr = LocalDateTime.now().format(DATE_FORMAT);
-        int counter = ticketCounter.incrementAndGet();
-        return String.format("%s-%s-%04d", TICKET_PREFIX, dateStr, counter);
-    }
-
-    /**
-     * Resets the ticket counter (useful for testing purposes).
-     */
-    public void resetCounter() {
-        ticketCounter.set(0);
-    }
-
-    /**
-     * Gets the current ticket counter value.
-     *
-     * @return Current counter value
-     */
-    public int getCurrentCounter() {
-        return ticketCounter.get();
-    }
-}
+package com.airtribe.parkingticket;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ParkingTicketGenerator is responsible for generating parking tickets
+ * with unique IDs and proper formatting.
+ *
+ * The ticket counter is shared by every generator in the JVM, so the
+ * operations on it are static.
+ */
+public class ParkingTicketGenerator {
+    // Only grows (until resetCounter); reduced modulo TicketIds.COUNTER_RADIX when a number is issued
+    private static final AtomicLong ticketCounter = new AtomicLong(0);
+
+    // Date part of the ticket number, recomputed once the current day is over
+    private volatile IssueDay issueDay = IssueDay.containing(System.currentTimeMillis());
+
+    /**
+     * The yyyyMMdd key for one calendar day in the system time zone,
+     * with the epoch-millisecond range it covers.
+     */
+    private record IssueDay(int dateKey, long startMillis, long endMillis) {
+        static IssueDay containing(long epochMillis) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+            int dateKey = date.getYear() * 10_000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+            long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            return new IssueDay(dateKey, start, end);
+        }
+
+        boolean contains(long epochMillis) {
+            return epochMillis >= startMillis && epochMillis < endMillis;
+        }
+    }
+
+    /**
+     * Generates a new parking ticket for the given vehicle and parking spot.
+     *
+     * @param vehicle The vehicle for which the ticket is being generated
+     * @param parkingSpot The parking spot where the vehicle is parked
+     * @return A new ParkingTicket instance
+     * @throws IllegalArgumentException if vehicle or parkingSpot is null
+     */
+    public ParkingTicket generateTicket(Vehicle vehicle, ParkingSpot parkingSpot) {
+        if (vehicle == null) {
+            throw new IllegalArgumentException("Vehicle cannot be null");
+        }
+        if (parkingSpot == null) {
+            throw new IllegalArgumentException("Parking spot cannot be null");
+        }
+
+        return new ParkingTicket(generateTicketNumber(), vehicle, parkingSpot);
+    }
+
+    /**
+     * Generates tickets for a batch of parked vehicles. The whole batch takes
+     * a contiguous range of ticket numbers reserved with one atomic add.
+     *
+     * @param vehicles The vehicles, in batch order
+     * @param parkingSpots The spot for each vehicle; null entries get no ticket
+     * @return Tickets aligned with the input, null where the spot was null
+     */
+    public ParkingTicket[] generateTickets(List<Vehicle> vehicles, ParkingSpot[] parkingSpots) {
+        if (vehicles == null || parkingSpots == null || vehicles.size() != parkingSpots.length) {
+            throw new IllegalArgumentException("Vehicles and parking spots must be non-null and the same size");
+        }
+
+        int count = 0;
+        for (ParkingSpot spot : parkingSpots) {
+            if (spot != null) {
+                count++;
+            }
+        }
+
+        ParkingTicket[] tickets = new ParkingTicket[parkingSpots.length];
+        if (count == 0) {
+            return tickets;
+        }
+        int dateKey = currentIssueDay().dateKey();
+        long counter = ticketCounter.getAndAdd(count);
+        for (int i = 0; i < parkingSpots.length; i++) {
+            if (parkingSpots[i] != null) {
+                Vehicle vehicle = vehicles.get(i);
+                if (vehicle == null) {
+                    throw new IllegalArgumentException("Vehicle cannot be null");
+                }
+                tickets[i] = new ParkingTicket(TicketIds.toTicketNumber(dateKey, ++counter % TicketIds.COUNTER_RADIX),
+                        vehicle, parkingSpots[i]);
+            }
+        }
+        return tickets;
+    }
+
+    /**
+     * Generates a unique numeric ticket ID from the current date and counter.
+     * The text form PT-YYYYMMDD-NNNN is rendered by the ticket on first use.
+     * No formatting or allocation happens here; the date key is cached and
+     * only recomputed when the day rolls over. The counter is reduced
+     * modulo COUNTER_RADIX, so it can't spill into the date part; numbers
+     * repeat only after 10^10 tickets.
+     *
+     * @return A unique ticket number
+     */
+    private long generateTicketNumber() {
+        IssueDay day = currentIssueDay();
+        long counter = ticketCounter.incrementAndGet() % TicketIds.COUNTER_RADIX;
+        return TicketIds.toTicketNumber(day.dateKey(), counter);
+    }
+
+    private IssueDay currentIssueDay() {
+        long now = System.currentTimeMillis();
+        IssueDay day = issueDay;
+        if (!day.contains(now)) {
+            day = IssueDay.containing(now);
+            issueDay = day;
+        }
+        return day;
+    }
+
+    /**
+     * Resets the ticket counter (useful for testing purposes).
+     */
+    public static void resetCounter() {
+        ticketCounter.set(0);
+    }
+
+    /**
+     * Moves the ticket counter forward to at least the given value, so
+     * tickets restored after a restart are never issued again. Called by
+     * TicketJournal.recover.
+     */
+    public static void ensureCounterAtLeast(long counter) {
+        ticketCounter.accumulateAndGet(counter, Math::max);
+    }
+
+    /**
+     * Gets the current ticket counter value.
+     *
+     * @return Current counter value
+     */
+    public static long getCurrentCounter() {
+        return ticketCounter.get();
+    }
+}
@@ -0,0 +1,109 @@
+package com.airtribe.parkingticket;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact numeric ticket IDs and their text form.
+ * A ticket number packs the issue date and the counter as
+ * {@code yyyyMMdd * COUNTER_RADIX + counter}, which renders as
+ * PT-YYYYMMDD-NNNN (counter zero-padded to at least four digits).
+ */
+public final class TicketIds {
+    public static final String TICKET_PREFIX = "PT";
+    // Counters are kept below this, so date and counter never overlap
+    public static final long COUNTER_RADIX = 10_000_000_000L;
+
+    private static final int MIN_COUNTER_DIGITS = 4;
+    // "PT-" + 8 date digits + "-" + up to 10 counter digits
+    private static final int MAX_LENGTH = TICKET_PREFIX.length() + 1 + 8 + 1 + 10;
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[MAX_LENGTH]);
+
+    private TicketIds() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the counter is negative or not below COUNTER_RADIX
+     */
+    public static long toTicketNumber(int dateKey, long counter) {
+        if (counter < 0 || counter >= COUNTER_RADIX) {
+            throw new IllegalArgumentException("Ticket counter out of range: " + counter);
+        }
+        return dateKey * COUNTER_RADIX + counter;
+    }
+
+    /**
+     * Renders a ticket number as PT-YYYYMMDD-NNNN. Digits are written into a
+     * per-thread buffer, so the returned String is the only allocation.
+     */
+    public static String format(long ticketNumber) {
+        if (ticketNumber < 0) {
+            throw new IllegalArgumentException("Invalid ticket number: " + ticketNumber);
+        }
+        int dateKey = (int) (ticketNumber / COUNTER_RADIX);
+        long counter = ticketNumber % COUNTER_RADIX;
+
+        byte[] buffer = BUFFER.get();
+        int pos = 0;
+        for (int i = 0; i < TICKET_PREFIX.length(); i++) {
+            buffer[pos++] = (byte) TICKET_PREFIX.charAt(i);
+        }
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, dateKey, 8);
+        buffer[pos++] = '-';
+        pos = writeDigits(buffer, pos, counter, MIN_COUNTER_DIGITS);
+        return new String(buffer, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Parses a ticket ID in the canonical PT-YYYYMMDD-NNNN form back to its
+     * ticket number.
+     *
+     * @return the ticket number, or -1 if the ID is not one that format() produces
+     */
+    public static long parse(String ticketId) {
+        int prefix = TICKET_PREFIX.length();
+        int counterStart = prefix + 1 + 8 + 1;
+        int length = ticketId.length();
+        if (length < counterStart + MIN_COUNTER_DIGITS || length > MAX_LENGTH
+                || !ticketId.startsWith(TICKET_PREFIX)
+                || ticketId.charAt(prefix) != '-' || ticketId.charAt(counterStart - 1) != '-') {
+            return -1;
+        }
+        // Extra leading zeros would render differently, so they don't name a ticket number
+        if (length > counterStart + MIN_COUNTER_DIGITS && ticketId.charAt(counterStart) == '0') {
+            return -1;
+        }
+        long dateKey = parseDigits(ticketId, prefix + 1, counterStart - 1);
+        long counter = parseDigits(ticketId, counterStart, length);
+        if (dateKey < 0 || counter < 0 || counter >= COUNTER_RADIX) {
+            return -1;
+        }
+        return dateKey * COUNTER_RADIX + counter;
+    }
+
+    private static long parseDigits(String text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int writeDigits(byte[] buffer, int pos, long value, int minDigits) {
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        int end = pos + digits;
+        for (int i = end - 1; i >= pos; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
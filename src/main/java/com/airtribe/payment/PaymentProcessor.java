@@ -1,5 +1,17 @@
-package com.airtribe.payment;
-
-public interface PaymentProcessor {
-    boolean processPayment(double amount);
-}
+package com.airtribe.payment;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PaymentProcessor {
+    boolean processPayment(double amount);
+
+    /**
+     * Starts a payment and returns a future that completes with whether it succeeded.
+     * The default runs processPayment on the calling thread and returns an
+     * already-completed future; processors that talk to a remote terminal or
+     * gateway should override it so the caller doesn't wait on the round trip.
+     */
+    default CompletableFuture<Boolean> processPaymentAsync(double amount) {
+        return CompletableFuture.completedFuture(processPayment(amount));
+    }
+}
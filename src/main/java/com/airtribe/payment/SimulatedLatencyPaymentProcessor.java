@@ -0,0 +1,44 @@
+package com.airtribe.payment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a card gateway that takes a fixed time to authorize.
+ * processPayment blocks for the latency; processPaymentAsync completes the
+ * future after the latency without holding a thread while it waits.
+ * Every payment succeeds. Used to benchmark the sync and async exit paths.
+ */
+public class SimulatedLatencyPaymentProcessor implements PaymentProcessor {
+    private final long latencyMillis;
+    private final Executor delayedExecutor;
+
+    public SimulatedLatencyPaymentProcessor(long latencyMillis) {
+        if (latencyMillis < 0) {
+            throw new IllegalArgumentException("Latency cannot be negative");
+        }
+        this.latencyMillis = latencyMillis;
+        this.delayedExecutor = CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean processPayment(double amount) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> processPaymentAsync(double amount) {
+        return CompletableFuture.supplyAsync(() -> true, delayedExecutor);
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+}
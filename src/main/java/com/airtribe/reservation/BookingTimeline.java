@@ -0,0 +1,123 @@
+package com.airtribe.reservation;
+
+import java.util.Arrays;
+
+/**
+ * Number of bookings overlapping each time slot, over a sliding horizon.
+ *
+ * Slots are numbered from the epoch (slot = millis / SLOT_MILLIS). The
+ * horizon is a ring of HORIZON_SLOTS slots kept in a segment tree with lazy
+ * range additions, so adding a booking over [from, to) and asking for the
+ * most bookings at any slot in [from, to) are both O(log HORIZON_SLOTS),
+ * however many bookings there are. Slots that fall into the past are zeroed
+ * by advance() before the ring reuses them.
+ *
+ * Not thread-safe; ReservationPool guards it.
+ */
+final class BookingTimeline {
+    static final long SLOT_MILLIS = 15 * 60 * 1000L;
+    // 8192 quarter-hours: a little over 85 days
+    static final int HORIZON_SLOTS = 1 << 13;
+    private static final int MASK = HORIZON_SLOTS - 1;
+
+    // Node i covers a range of ring positions; max[i] excludes the pending adds of its ancestors
+    private final int[] max = new int[2 * HORIZON_SLOTS];
+    private final int[] pending = new int[2 * HORIZON_SLOTS];
+    // Every slot below this has been zeroed
+    private long clearedBefore;
+
+    BookingTimeline(long nowSlot) {
+        this.clearedBefore = nowSlot;
+    }
+
+    /**
+     * Adds delta to every slot in [fromSlot, toSlot). The range must lie
+     * within the horizon that starts at the last advance.
+     */
+    void add(long fromSlot, long toSlot, int delta) {
+        if (fromSlot >= toSlot) {
+            return;
+        }
+        int from = (int) (fromSlot & MASK);
+        int to = (int) (toSlot & MASK);
+        if (from < to) {
+            add(1, 0, HORIZON_SLOTS, from, to, delta);
+        } else {
+            // Range wraps around the end of the ring
+            add(1, 0, HORIZON_SLOTS, from, HORIZON_SLOTS, delta);
+            if (to > 0) {
+                add(1, 0, HORIZON_SLOTS, 0, to, delta);
+            }
+        }
+    }
+
+    /**
+     * Most bookings at any slot in [fromSlot, toSlot).
+     */
+    int max(long fromSlot, long toSlot) {
+        if (fromSlot >= toSlot) {
+            return 0;
+        }
+        int from = (int) (fromSlot & MASK);
+        int to = (int) (toSlot & MASK);
+        if (from < to) {
+            return max(1, 0, HORIZON_SLOTS, from, to);
+        }
+        int tail = max(1, 0, HORIZON_SLOTS, from, HORIZON_SLOTS);
+        return to == 0 ? tail : Math.max(tail, max(1, 0, HORIZON_SLOTS, 0, to));
+    }
+
+    /**
+     * Zeroes the slots before nowSlot so their ring positions can be reused
+     * for the end of the horizon. Costs O(log HORIZON_SLOTS) per slot passed
+     * since the last call.
+     */
+    void advance(long nowSlot) {
+        if (nowSlot <= clearedBefore) {
+            return;
+        }
+        if (nowSlot - clearedBefore >= HORIZON_SLOTS) {
+            Arrays.fill(max, 0);
+            Arrays.fill(pending, 0);
+        } else {
+            for (long slot = clearedBefore; slot < nowSlot; slot++) {
+                int count = max(slot, slot + 1);
+                if (count != 0) {
+                    add(slot, slot + 1, -count);
+                }
+            }
+        }
+        clearedBefore = nowSlot;
+    }
+
+    private void add(int node, int nodeFrom, int nodeTo, int from, int to, int delta) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            max[node] += delta;
+            pending[node] += delta;
+            return;
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        if (from < middle) {
+            add(2 * node, nodeFrom, middle, from, to, delta);
+        }
+        if (to > middle) {
+            add(2 * node + 1, middle, nodeTo, from, to, delta);
+        }
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]) + pending[node];
+    }
+
+    private int max(int node, int nodeFrom, int nodeTo, int from, int to) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            return max[node];
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        int best = Integer.MIN_VALUE;
+        if (from < middle) {
+            best = max(2 * node, nodeFrom, middle, from, to);
+        }
+        if (to > middle) {
+            best = Math.max(best, max(2 * node + 1, middle, nodeTo, from, to));
+        }
+        return best + pending[node];
+    }
+}
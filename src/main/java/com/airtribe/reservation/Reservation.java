@@ -0,0 +1,96 @@
+package com.airtribe.reservation;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.ticketstore.PlateIndex;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A booked window on a floor's pool of spots of one type. The window is
+ * widened to whole 15-minute slots when booked.
+ */
+public class Reservation {
+
+    public enum Status {
+        BOOKED,
+        CHECKED_IN,
+        COMPLETED,
+        CANCELLED
+    }
+
+    private final String reservationId;
+    private final String licenseNumber;
+    private final ParkingFloor floor;
+    private final SpotType spotType;
+    private final long fromSlot;
+    private final long toSlot;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.BOOKED);
+
+    Reservation(String reservationId, String licenseNumber, ParkingFloor floor, SpotType spotType,
+                long fromSlot, long toSlot) {
+        this.reservationId = reservationId;
+        this.licenseNumber = licenseNumber;
+        this.floor = floor;
+        this.spotType = spotType;
+        this.fromSlot = fromSlot;
+        this.toSlot = toSlot;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public String getLicenseNumber() {
+        return licenseNumber;
+    }
+
+    public ParkingFloor getFloor() {
+        return floor;
+    }
+
+    public SpotType getSpotType() {
+        return spotType;
+    }
+
+    public long getFromMillis() {
+        return fromSlot * BookingTimeline.SLOT_MILLIS;
+    }
+
+    public long getToMillis() {
+        return toSlot * BookingTimeline.SLOT_MILLIS;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Whether the vehicle is the one booked (plates compared as PlateIndex
+     * normalizes them) and fits the booked spot type.
+     */
+    public boolean isFor(Vehicle vehicle) {
+        return PlateIndex.normalize(vehicle.getLicenseNumber()).equals(PlateIndex.normalize(licenseNumber))
+                && ParkingSpot.isCompatible(spotType, vehicle.getType());
+    }
+
+    long getFromSlot() {
+        return fromSlot;
+    }
+
+    long getToSlot() {
+        return toSlot;
+    }
+
+    boolean transition(Status expected, Status next) {
+        return status.compareAndSet(expected, next);
+    }
+
+    @Override
+    public String toString() {
+        return reservationId + " [" + licenseNumber + ", " + spotType + " on " + floor.getFloorId() + ", "
+                + status.get() + "]";
+    }
+}
@@ -0,0 +1,200 @@
+package com.airtribe.reservation;
+
+import com.airtribe.ParkingSpot;
+import com.airtribe.SpotType;
+import com.airtribe.Vehicle;
+import com.airtribe.parkingfloor.ParkingFloor;
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Advance reservations for a parking lot.
+ *
+ * Each floor keeps a ReservationPool per spot type. Checking whether a spot
+ * type is free for a window, and booking it, ask the pools floor by floor,
+ * each in O(log horizon) regardless of how many bookings exist. Walk-in
+ * entries see the spots held for holders due within the hold period as
+ * taken (ParkingFloor consults its pools before claiming), and holders
+ * check in through EntryPanel.parkReservedVehicle.
+ *
+ * Reservations are kept in memory only; they are not journaled.
+ */
+public class ReservationBook {
+    /** Bookings must end within this long from now. */
+    public static final long MAX_ADVANCE_MILLIS = BookingTimeline.HORIZON_SLOTS * BookingTimeline.SLOT_MILLIS;
+
+    private final List<ParkingFloor> floors;
+    private final ConcurrentHashMap<String, Reservation> reservations = new ConcurrentHashMap<>();
+    // Reservations whose holder is parked, by ticket ID, so exits can close them
+    private final ConcurrentHashMap<String, Reservation> byTicketId = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * @param floors The lot's live floor list
+     */
+    public ReservationBook(List<ParkingFloor> floors) {
+        this.floors = floors;
+    }
+
+    /**
+     * Whether any floor has a spot of the type free for the whole window.
+     *
+     * @throws IllegalArgumentException if the window is empty, over or too far ahead
+     */
+    public boolean isAvailable(SpotType type, long fromMillis, long toMillis) {
+        long nowSlot = ReservationPool.currentSlot();
+        long fromSlot = ReservationPool.slotOf(fromMillis);
+        long toSlot = endSlot(toMillis);
+        validate(fromSlot, toSlot, nowSlot);
+        for (ParkingFloor floor : floors) {
+            if (!floor.isUnderMaintenance() && floor.getReservationPool(type).isAvailable(fromSlot, toSlot, nowSlot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Books a spot of the type for the window on the first floor that has
+     * one free throughout. The window is widened to whole 15-minute slots.
+     *
+     * @return the reservation, or null if no floor can take it
+     * @throws IllegalArgumentException if the window is empty, over or too far ahead
+     */
+    public Reservation book(String licenseNumber, SpotType type, long fromMillis, long toMillis) {
+        if (licenseNumber == null || licenseNumber.isBlank()) {
+            throw new IllegalArgumentException("License number is required");
+        }
+        long nowSlot = ReservationPool.currentSlot();
+        long fromSlot = ReservationPool.slotOf(fromMillis);
+        long toSlot = endSlot(toMillis);
+        validate(fromSlot, toSlot, nowSlot);
+        for (ParkingFloor floor : floors) {
+            if (!floor.isUnderMaintenance() && floor.getReservationPool(type).tryBook(fromSlot, toSlot, nowSlot)) {
+                Reservation reservation = new Reservation("R-" + nextId.incrementAndGet(), licenseNumber,
+                        floor, type, fromSlot, toSlot);
+                reservations.put(reservation.getReservationId(), reservation);
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    public Reservation getReservation(String reservationId) {
+        return reservations.get(reservationId);
+    }
+
+    /**
+     * Cancels a reservation whose holder hasn't arrived, freeing its window.
+     *
+     * @return false if there is no such reservation or it was already used
+     */
+    public boolean cancel(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservation.transition(Reservation.Status.BOOKED, Reservation.Status.CANCELLED)) {
+            return false;
+        }
+        reservations.remove(reservationId);
+        pool(reservation).cancel(reservation.getFromSlot(), reservation.getToSlot(), false,
+                ReservationPool.currentSlot());
+        return true;
+    }
+
+    /**
+     * Whether the holder may check in now: from the start of the hold
+     * period before the window until the window ends.
+     */
+    public boolean isCheckInOpen(Reservation reservation) {
+        long now = System.currentTimeMillis();
+        return now >= reservation.getFromMillis() - pool(reservation).getHoldMillis()
+                && now < reservation.getToMillis();
+    }
+
+    /**
+     * Claims a spot for an arriving holder from the booked pool, ignoring
+     * the hold that keeps walk-ins out of it. Called by EntryPanel after
+     * isCheckInOpen.
+     *
+     * @return the claimed spot, or null if the reservation was already used
+     *         or no spot of the type was free
+     */
+    public ParkingSpot checkIn(Reservation reservation, Vehicle vehicle) {
+        if (!reservation.transition(Reservation.Status.BOOKED, Reservation.Status.CHECKED_IN)) {
+            return null;
+        }
+        ParkingSpot spot = reservation.getFloor().claimReservedSpot(vehicle, reservation.getSpotType());
+        if (spot == null) {
+            reservation.transition(Reservation.Status.CHECKED_IN, Reservation.Status.BOOKED);
+            return null;
+        }
+        pool(reservation).checkIn(reservation.getFromSlot(), reservation.getToSlot(), ReservationPool.currentSlot());
+        return spot;
+    }
+
+    /**
+     * Puts a checked-in reservation back to booked and frees its spot, when
+     * the entry failed after checkIn.
+     */
+    public void undoCheckIn(Reservation reservation, ParkingSpot spot) {
+        spot.release();
+        if (reservation.transition(Reservation.Status.CHECKED_IN, Reservation.Status.BOOKED)) {
+            pool(reservation).undoCheckIn(reservation.getFromSlot(), reservation.getToSlot(),
+                    ReservationPool.currentSlot());
+        }
+    }
+
+    /**
+     * Links the ticket issued at check-in to the reservation, so the exit
+     * can close it.
+     */
+    public void bindTicket(Reservation reservation, ParkingTicket ticket) {
+        byTicketId.put(ticket.getTicketId(), reservation);
+    }
+
+    /**
+     * Closes the reservation the ticket was issued for, if any, and frees
+     * the rest of its window. Called by ExitPanel once the vehicle has left.
+     */
+    public void completeStay(ParkingTicket ticket) {
+        if (byTicketId.isEmpty()) {
+            return;
+        }
+        Reservation reservation = byTicketId.remove(ticket.getTicketId());
+        if (reservation != null && reservation.transition(Reservation.Status.CHECKED_IN, Reservation.Status.COMPLETED)) {
+            reservations.remove(reservation.getReservationId());
+            pool(reservation).cancel(reservation.getFromSlot(), reservation.getToSlot(), true,
+                    ReservationPool.currentSlot());
+        }
+    }
+
+    /**
+     * Number of reservations booked or checked in.
+     */
+    public int size() {
+        return reservations.size();
+    }
+
+    private static ReservationPool pool(Reservation reservation) {
+        return reservation.getFloor().getReservationPool(reservation.getSpotType());
+    }
+
+    private static long endSlot(long toMillis) {
+        return Math.floorDiv(toMillis + BookingTimeline.SLOT_MILLIS - 1, BookingTimeline.SLOT_MILLIS);
+    }
+
+    private static void validate(long fromSlot, long toSlot, long nowSlot) {
+        if (toSlot <= fromSlot) {
+            throw new IllegalArgumentException("Reservation must end after it starts");
+        }
+        if (toSlot <= nowSlot) {
+            throw new IllegalArgumentException("Reservation window is already over");
+        }
+        if (toSlot - nowSlot > BookingTimeline.HORIZON_SLOTS) {
+            throw new IllegalArgumentException("Reservations can be made at most "
+                    + MAX_ADVANCE_MILLIS / (24 * 60 * 60 * 1000L) + " days ahead");
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.airtribe.reservation;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Advance bookings for the spots of one type on one floor.
+ *
+ * Bookings are held against the pool, not a particular spot: a booking fits
+ * if, at every slot of its window, fewer bookings overlap than the pool has
+ * spots (intervals that never exceed the spot count can always be laid out
+ * on that many spots), and the holder gets whichever spot is free when they
+ * arrive. Two BookingTimelines track the overlap counts: one for every
+ * booking, which decides whether a new booking fits, and one for bookings
+ * whose holder hasn't arrived yet, which decides how many free spots
+ * walk-in vehicles must leave alone.
+ *
+ * Booking and check-in take the pool's lock. heldSpots(), called on every
+ * walk-in claim, only reads a cached value that is recomputed when a
+ * booking changes or the clock enters a new slot, and skips even that while
+ * the pool has no current bookings.
+ */
+public class ReservationPool {
+    /** Walk-ins are kept out of a booked spot from this long before the booking starts. */
+    public static final long DEFAULT_HOLD_MILLIS = 60 * 60 * 1000L;
+
+    private final IntSupplier capacity;
+    private final long holdSlots;
+    // Created on the first booking; most pools never see one
+    private BookingTimeline booked;
+    private BookingTimeline notArrived;
+    // End slot of the latest-ending booking made so far
+    private volatile long bookedUntilSlot = Long.MIN_VALUE;
+    private volatile Hold hold = new Hold(Long.MIN_VALUE, 0);
+
+    private record Hold(long slot, int spots) {
+    }
+
+    /**
+     * @param capacity Current number of spots in the pool
+     */
+    public ReservationPool(IntSupplier capacity) {
+        this(capacity, DEFAULT_HOLD_MILLIS);
+    }
+
+    /**
+     * @param capacity Current number of spots in the pool
+     * @param holdMillis How far ahead of a booking walk-ins are kept out of the spot it needs
+     */
+    public ReservationPool(IntSupplier capacity, long holdMillis) {
+        this.capacity = capacity;
+        this.holdSlots = Math.max(1, (holdMillis + BookingTimeline.SLOT_MILLIS - 1) / BookingTimeline.SLOT_MILLIS);
+    }
+
+    /**
+     * Whether a booking for [fromSlot, toSlot) would fit. O(log horizon).
+     */
+    public synchronized boolean isAvailable(long fromSlot, long toSlot, long nowSlot) {
+        if (booked == null) {
+            return capacity.getAsInt() > 0;
+        }
+        booked.advance(nowSlot);
+        return booked.max(Math.max(fromSlot, nowSlot), toSlot) < capacity.getAsInt();
+    }
+
+    /**
+     * Books [fromSlot, toSlot) if it fits. O(log horizon).
+     *
+     * @return false if some slot of the window is already fully booked
+     */
+    public synchronized boolean tryBook(long fromSlot, long toSlot, long nowSlot) {
+        if (booked == null) {
+            booked = new BookingTimeline(nowSlot);
+            notArrived = new BookingTimeline(nowSlot);
+        }
+        booked.advance(nowSlot);
+        notArrived.advance(nowSlot);
+        long from = Math.max(fromSlot, nowSlot);
+        if (booked.max(from, toSlot) >= capacity.getAsInt()) {
+            return false;
+        }
+        booked.add(from, toSlot, 1);
+        notArrived.add(from, toSlot, 1);
+        if (toSlot > bookedUntilSlot) {
+            bookedUntilSlot = toSlot;
+        }
+        hold = computeHold(nowSlot);
+        return true;
+    }
+
+    /**
+     * Drops what is left of a booking.
+     *
+     * @param arrived Whether the holder had checked in
+     */
+    public synchronized void cancel(long fromSlot, long toSlot, boolean arrived, long nowSlot) {
+        booked.advance(nowSlot);
+        notArrived.advance(nowSlot);
+        long from = Math.max(fromSlot, nowSlot);
+        booked.add(from, toSlot, -1);
+        if (!arrived) {
+            notArrived.add(from, toSlot, -1);
+        }
+        hold = computeHold(nowSlot);
+    }
+
+    /**
+     * The holder has parked: the booking no longer needs a spot held for it.
+     */
+    public synchronized void checkIn(long fromSlot, long toSlot, long nowSlot) {
+        notArrived.advance(nowSlot);
+        notArrived.add(Math.max(fromSlot, nowSlot), toSlot, -1);
+        hold = computeHold(nowSlot);
+    }
+
+    /**
+     * Reverses checkIn, for a check-in that couldn't be completed.
+     */
+    public synchronized void undoCheckIn(long fromSlot, long toSlot, long nowSlot) {
+        notArrived.advance(nowSlot);
+        notArrived.add(Math.max(fromSlot, nowSlot), toSlot, 1);
+        hold = computeHold(nowSlot);
+    }
+
+    /**
+     * Number of free spots walk-in vehicles should leave for bookings whose
+     * holders are due within the hold period and haven't arrived yet.
+     */
+    public int heldSpots() {
+        long nowSlot = currentSlot();
+        if (nowSlot >= bookedUntilSlot) {
+            return 0;
+        }
+        Hold current = hold;
+        if (current.slot() == nowSlot) {
+            return current.spots();
+        }
+        synchronized (this) {
+            current = hold;
+            if (current.slot() != nowSlot) {
+                notArrived.advance(nowSlot);
+                booked.advance(nowSlot);
+                current = computeHold(nowSlot);
+                hold = current;
+            }
+            return current.spots();
+        }
+    }
+
+    /**
+     * How long before a booking starts its holder may check in.
+     */
+    public long getHoldMillis() {
+        return holdSlots * BookingTimeline.SLOT_MILLIS;
+    }
+
+    /**
+     * Slot holding the given time. Bookings are kept at slot granularity.
+     */
+    public static long slotOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, BookingTimeline.SLOT_MILLIS);
+    }
+
+    static long currentSlot() {
+        return slotOf(System.currentTimeMillis());
+    }
+
+    private Hold computeHold(long nowSlot) {
+        return new Hold(nowSlot, Math.max(0, notArrived.max(nowSlot, nowSlot + holdSlots)));
+    }
+}
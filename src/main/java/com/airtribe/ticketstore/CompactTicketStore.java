@@ -0,0 +1,286 @@
+package com.airtribe.ticketstore;
+
+import com.airtribe.ParkingLot;
+import com.airtribe.ParkingSpot;
+import com.airtribe.Vehicle;
+import com.airtribe.VehicleType;
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.TicketIds;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ticket store for very large numbers of active tickets. Each ticket is
+ * packed into a fixed-width record in primitive arrays instead of being kept
+ * as a ParkingTicket with its Vehicle and Strings:
+ *
+ *   ticket number (8) | spot ordinal (4) | entry time (8) | vehicle type (1) | plate (16)
+ *
+ * Records live in open-addressing tables (linear probing, keyed by the
+ * primitive ticket number) split into independently locked stripes, so
+ * there is no per-ticket object for the GC to trace.
+ *
+ * get and remove rebuild a ParkingTicket (and Vehicle) from the record, so
+ * they return an equal ticket, not the stored instance. Tickets that don't
+ * fit a record (text-only IDs, no spot handle, plates longer than 15
+ * Latin-1 characters) are kept as objects in a small fallback map.
+ */
+public class CompactTicketStore implements TicketStore {
+    private static final int STRIPES = 64;
+    private static final int STRIPE_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(STRIPES);
+    private static final int MIN_STRIPE_CAPACITY = 256;
+    private static final int PLATE_BYTES = 16;
+    private static final int MAX_PLATE_LENGTH = PLATE_BYTES - 1;
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final ParkingLot parkingLot;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ConcurrentHashMap<String, ParkingTicket> fallback = new ConcurrentHashMap<>();
+
+    /**
+     * @param parkingLot The lot whose spot table resolves stored spot ordinals
+     */
+    public CompactTicketStore(ParkingLot parkingLot) {
+        this(parkingLot, 0);
+    }
+
+    /**
+     * @param parkingLot The lot whose spot table resolves stored spot ordinals
+     * @param expectedTickets Tickets to size the tables for up front
+     */
+    public CompactTicketStore(ParkingLot parkingLot, int expectedTickets) {
+        if (expectedTickets < 0) {
+            throw new IllegalArgumentException("Expected tickets cannot be negative: " + expectedTickets);
+        }
+        this.parkingLot = parkingLot;
+        int perStripe = (int) Math.min(1 << 26, (long) expectedTickets / STRIPES * 2);
+        int capacity = Math.max(MIN_STRIPE_CAPACITY, Integer.highestOneBit(Math.max(1, perStripe - 1)) << 1);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    @Override
+    public void put(ParkingTicket ticket) {
+        long number = ticket.getTicketNumber();
+        ParkingSpot spot = ticket.getSpot();
+        byte[] plate = encodePlate(ticket.getVehicle().getLicenseNumber());
+        if (number <= 0 || spot == null || spot.getLotOrdinal() < 0 || plate == null) {
+            fallback.put(ticket.getTicketId(), ticket);
+            return;
+        }
+        long hash = mix(number);
+        stripeFor(hash).put(number, hash, spot.getLotOrdinal(), ticket.getEntryTime(),
+                (byte) ticket.getVehicle().getType().ordinal(), plate);
+    }
+
+    @Override
+    public ParkingTicket get(String ticketId) {
+        long number = TicketIds.parse(ticketId);
+        if (number > 0) {
+            long hash = mix(number);
+            ParkingTicket ticket = stripeFor(hash).get(number, hash, false);
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return fallback.isEmpty() ? null : fallback.get(ticketId);
+    }
+
+    @Override
+    public ParkingTicket remove(String ticketId) {
+        long number = TicketIds.parse(ticketId);
+        if (number > 0) {
+            long hash = mix(number);
+            ParkingTicket ticket = stripeFor(hash).get(number, hash, true);
+            if (ticket != null) {
+                return ticket;
+            }
+        }
+        return fallback.isEmpty() ? null : fallback.remove(ticketId);
+    }
+
+    @Override
+    public int size() {
+        int size = fallback.size();
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> STRIPE_SHIFT)];
+    }
+
+    /**
+     * Spreads ticket numbers (which are sequential) over the table.
+     */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    /**
+     * Length byte followed by up to 15 Latin-1 characters, or null if the
+     * plate doesn't fit.
+     */
+    private static byte[] encodePlate(String plate) {
+        if (plate.length() > MAX_PLATE_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[PLATE_BYTES];
+        bytes[0] = (byte) plate.length();
+        for (int i = 0; i < plate.length(); i++) {
+            char c = plate.charAt(i);
+            if (c > 0xFF) {
+                return null;
+            }
+            bytes[i + 1] = (byte) c;
+        }
+        return bytes;
+    }
+
+    /**
+     * One lock-protected open-addressing table. Slot i of every array
+     * belongs to the same record; a zero key marks an empty slot (ticket
+     * numbers are always positive).
+     */
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys;
+        private int[] spotOrdinals;
+        private long[] entryTimes;
+        private byte[] vehicleTypes;
+        private byte[] plates;
+        private int mask;
+        private int size;
+
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            spotOrdinals = new int[capacity];
+            entryTimes = new long[capacity];
+            vehicleTypes = new byte[capacity];
+            plates = new byte[capacity * PLATE_BYTES];
+            mask = capacity - 1;
+        }
+
+        void put(long key, long hash, int spotOrdinal, long entryTime, byte vehicleType, byte[] plate) {
+            lock.lock();
+            try {
+                // Keep the load factor at or below 1/2 so probe chains stay short
+                if ((size + 1) * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+                int slot = (int) hash & mask;
+                while (keys[slot] != 0 && keys[slot] != key) {
+                    slot = (slot + 1) & mask;
+                }
+                if (keys[slot] == 0) {
+                    size++;
+                }
+                write(slot, key, spotOrdinal, entryTime, vehicleType, plate, 0);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        ParkingTicket get(long key, long hash, boolean remove) {
+            int spotOrdinal;
+            long entryTime;
+            byte vehicleType;
+            String plate;
+            lock.lock();
+            try {
+                int slot = (int) hash & mask;
+                while (keys[slot] != key) {
+                    if (keys[slot] == 0) {
+                        return null;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                spotOrdinal = spotOrdinals[slot];
+                entryTime = entryTimes[slot];
+                vehicleType = vehicleTypes[slot];
+                int plateOffset = slot * PLATE_BYTES;
+                plate = new String(plates, plateOffset + 1, plates[plateOffset], StandardCharsets.ISO_8859_1);
+                if (remove) {
+                    delete(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+            // Materialize outside the lock
+            Vehicle vehicle = new Vehicle(plate, VEHICLE_TYPES[vehicleType]);
+            return new ParkingTicket(key, null, vehicle, parkingLot.getSpotByOrdinal(spotOrdinal), entryTime);
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Backward-shift deletion: pulls later entries of the probe chain
+         * into the gap, so no tombstones are needed.
+         */
+        private void delete(int slot) {
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                long key = keys[next];
+                if (key == 0) {
+                    break;
+                }
+                int home = (int) mix(key) & mask;
+                // Move the entry unless its home lies cyclically between the gap and its slot
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    write(gap, key, spotOrdinals[next], entryTimes[next], vehicleTypes[next], plates, next * PLATE_BYTES);
+                    gap = next;
+                }
+            }
+            keys[gap] = 0;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldSpots = spotOrdinals;
+            long[] oldTimes = entryTimes;
+            byte[] oldTypes = vehicleTypes;
+            byte[] oldPlates = plates;
+            allocate(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                long key = oldKeys[i];
+                if (key != 0) {
+                    int slot = (int) mix(key) & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    write(slot, key, oldSpots[i], oldTimes[i], oldTypes[i], oldPlates, i * PLATE_BYTES);
+                }
+            }
+        }
+
+        private void write(int slot, long key, int spotOrdinal, long entryTime, byte vehicleType,
+                           byte[] plateSource, int plateOffset) {
+            keys[slot] = key;
+            spotOrdinals[slot] = spotOrdinal;
+            entryTimes[slot] = entryTime;
+            vehicleTypes[slot] = vehicleType;
+            System.arraycopy(plateSource, plateOffset, plates, slot * PLATE_BYTES, PLATE_BYTES);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.airtribe.ticketstore;
+
+import com.airtribe.parkingticket.ParkingTicket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default ticket store: the ticket objects themselves in a ConcurrentHashMap.
+ * get and remove return the same instance that was stored.
+ */
+public class ConcurrentTicketStore implements TicketStore {
+    private final ConcurrentHashMap<String, ParkingTicket> tickets = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(ParkingTicket ticket) {
+        tickets.put(ticket.getTicketId(), ticket);
+    }
+
+    /**
+     * Inserts the batch with a single putAll.
+     */
+    @Override
+    public void putAll(ParkingTicket[] batch) {
+        Map<String, ParkingTicket> byId = new HashMap<>();
+        for (ParkingTicket ticket : batch) {
+            if (ticket != null) {
+                byId.put(ticket.getTicketId(), ticket);
+            }
+        }
+        tickets.putAll(byId);
+    }
+
+    @Override
+    public ParkingTicket get(String ticketId) {
+        return tickets.get(ticketId);
+    }
+
+    @Override
+    public ParkingTicket remove(String ticketId) {
+        return tickets.remove(ticketId);
+    }
+
+    @Override
+    public int size() {
+        return tickets.size();
+    }
+}
@@ -0,0 +1,393 @@
+package com.airtribe.ticketstore;
+
+import com.airtribe.parkingticket.ParkingTicket;
+import com.airtribe.parkingticket.TicketIds;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Index of active tickets by license plate, for lost-ticket lookup and for
+ * turning away a plate that is already parked.
+ *
+ * Plates are normalized (upper case, spaces, hyphens and dots dropped, so
+ * "ka-01 1234" and "KA011234" are the same plate) and packed into a long:
+ * up to 12 letters and digits, base 37 with 0 unused, so distinct plates
+ * get distinct keys. Packed plates live in open-addressing tables split
+ * into independently locked stripes, mapping to the ticket number. Plates
+ * that don't pack (longer, or other characters) and tickets without a
+ * number fall back to small hash maps.
+ *
+ * An entry is either a reservation (a gate is claiming a spot for the
+ * plate) or the plate's ticket. reserve() is the atomic check that lets
+ * exactly one of several concurrent gates admit a plate.
+ */
+public class PlateIndex {
+    // Values: a reservation, a ticket number (> 0), or a ticket kept in textTickets
+    private static final long RESERVED = 0;
+    private static final long TEXT_ONLY = -1;
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private static final int MAX_PACKED_LENGTH = 12;
+    private static final int RADIX = 37;
+    private static final int STRIPES = 64;
+    private static final int STRIPE_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(STRIPES);
+    private static final int STRIPE_CAPACITY = 256;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    // Normalized plates that don't pack into a long
+    private final ConcurrentHashMap<String, Long> unpacked = new ConcurrentHashMap<>();
+    // Tickets with only a text ID, by normalized plate
+    private final ConcurrentHashMap<String, String> textTickets = new ConcurrentHashMap<>();
+
+    public PlateIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(STRIPE_CAPACITY);
+        }
+    }
+
+    /**
+     * Upper-cases a plate and drops spaces, hyphens and dots.
+     *
+     * @throws IllegalArgumentException if the plate is null or has nothing else in it
+     */
+    public static String normalize(String plate) {
+        if (plate == null) {
+            throw new IllegalArgumentException("License plate cannot be null");
+        }
+        StringBuilder normalized = new StringBuilder(plate.length());
+        for (int i = 0; i < plate.length(); i++) {
+            char c = plate.charAt(i);
+            if (c != ' ' && c != '-' && c != '.') {
+                normalized.append(c);
+            }
+        }
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("License plate is empty: '" + plate + "'");
+        }
+        return normalized.toString().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs a plate into a positive long without building the normalized
+     * String, or returns -1 if it doesn't fit.
+     *
+     * @throws IllegalArgumentException if the plate is null or empty after normalizing
+     */
+    public static long pack(String plate) {
+        if (plate == null) {
+            throw new IllegalArgumentException("License plate cannot be null");
+        }
+        long key = 0;
+        int length = 0;
+        for (int i = 0; i < plate.length(); i++) {
+            char c = plate.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = 1 + (c - '0');
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = 11 + (c - 'A');
+            } else if (c >= 'a' && c <= 'z') {
+                digit = 11 + (c - 'a');
+            } else if (c == ' ' || c == '-' || c == '.') {
+                continue;
+            } else {
+                return -1;
+            }
+            if (++length > MAX_PACKED_LENGTH) {
+                return -1;
+            }
+            key = key * RADIX + digit;
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("License plate is empty: '" + plate + "'");
+        }
+        return key;
+    }
+
+    /**
+     * Reserves a plate for a vehicle about to be parked.
+     *
+     * @return true if the plate was free, false if it is already parked or reserved
+     */
+    public boolean reserve(String plate) {
+        long key = pack(plate);
+        if (key > 0) {
+            long hash = mix(key);
+            return stripeFor(hash).putIfAbsent(key, hash, RESERVED);
+        }
+        return unpacked.putIfAbsent(normalize(plate), RESERVED) == null;
+    }
+
+    /**
+     * Drops a reservation that never got a ticket. A ticket already bound
+     * to the plate is left alone.
+     */
+    public void release(String plate) {
+        long key = pack(plate);
+        if (key > 0) {
+            long hash = mix(key);
+            stripeFor(hash).remove(key, hash, RESERVED);
+        } else {
+            unpacked.remove(normalize(plate), RESERVED);
+        }
+    }
+
+    /**
+     * Points the ticket's plate at the ticket, replacing a reservation.
+     * Binding a ticket again (an exit that failed putting it back) is a no-op.
+     *
+     * @return true if the index changed, false if the plate was already bound to this ticket
+     * @throws IllegalStateException if the plate is bound to another ticket
+     */
+    public boolean bind(ParkingTicket ticket) {
+        String plate = ticket.getVehicle().getLicenseNumber();
+        long value = ticket.getTicketNumber() > 0 ? ticket.getTicketNumber() : TEXT_ONLY;
+        boolean addedText = false;
+        if (value == TEXT_ONLY) {
+            String existing = textTickets.putIfAbsent(normalize(plate), ticket.getTicketId());
+            if (existing != null && !existing.equals(ticket.getTicketId())) {
+                throw alreadyBound(ticket);
+            }
+            addedText = existing == null;
+        }
+        long key = pack(plate);
+        long previous;
+        if (key > 0) {
+            long hash = mix(key);
+            previous = stripeFor(hash).bind(key, hash, value);
+        } else {
+            long[] replaced = {MISSING};
+            unpacked.compute(normalize(plate), (k, current) -> {
+                replaced[0] = current == null ? MISSING : current;
+                return current == null || current == RESERVED ? value : current;
+            });
+            previous = replaced[0];
+        }
+        if (previous != MISSING && previous != RESERVED && previous != value) {
+            if (addedText) {
+                textTickets.remove(normalize(plate), ticket.getTicketId());
+            }
+            throw alreadyBound(ticket);
+        }
+        return previous != value || addedText;
+    }
+
+    private static IllegalStateException alreadyBound(ParkingTicket ticket) {
+        return new IllegalStateException("Plate " + ticket.getVehicle().getLicenseNumber()
+                + " is already bound to another ticket than " + ticket.getTicketId());
+    }
+
+    /**
+     * Removes the ticket's plate, if it still points at this ticket.
+     */
+    public void unbind(ParkingTicket ticket) {
+        String plate = ticket.getVehicle().getLicenseNumber();
+        long value = ticket.getTicketNumber() > 0 ? ticket.getTicketNumber() : TEXT_ONLY;
+        if (value == TEXT_ONLY && !textTickets.remove(normalize(plate), ticket.getTicketId())) {
+            return;
+        }
+        long key = pack(plate);
+        if (key > 0) {
+            long hash = mix(key);
+            stripeFor(hash).remove(key, hash, value);
+        } else {
+            unpacked.remove(normalize(plate), value);
+        }
+    }
+
+    /**
+     * @return the ID of the active ticket for this plate, or null if it isn't parked
+     */
+    public String findTicketId(String plate) {
+        long key = pack(plate);
+        long value;
+        if (key > 0) {
+            long hash = mix(key);
+            value = stripeFor(hash).get(key, hash);
+        } else {
+            Long unpackedValue = unpacked.get(normalize(plate));
+            value = unpackedValue == null ? MISSING : unpackedValue;
+        }
+        if (value == MISSING || value == RESERVED) {
+            return null;
+        }
+        return value == TEXT_ONLY ? textTickets.get(normalize(plate)) : TicketIds.format(value);
+    }
+
+    /**
+     * Number of plates parked or reserved.
+     */
+    public int size() {
+        int size = unpacked.size();
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> STRIPE_SHIFT)];
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    /**
+     * One lock-protected open-addressing table of packed plate to value.
+     * A zero key marks an empty slot (packed plates are always positive).
+     */
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] keys;
+        private long[] values;
+        private int mask;
+        private int size;
+
+        Stripe(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+            mask = capacity - 1;
+        }
+
+        boolean putIfAbsent(long key, long hash, long value) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (keys[slot] == key) {
+                    return false;
+                }
+                insert(slot, key, value);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Maps the key to the value unless it maps to something other than
+         * a reservation or the value itself.
+         *
+         * @return the previous value, or MISSING; the map is unchanged unless
+         *         that was MISSING or RESERVED
+         */
+        long bind(long key, long hash, long value) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (keys[slot] != key) {
+                    insert(slot, key, value);
+                    return MISSING;
+                }
+                long previous = values[slot];
+                if (previous == RESERVED) {
+                    values[slot] = value;
+                }
+                return previous;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long get(long key, long hash) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                return keys[slot] == key ? values[slot] : MISSING;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Removes the key if it maps to the expected value.
+         */
+        boolean remove(long key, long hash, long expected) {
+            lock.lock();
+            try {
+                int slot = find(key, hash);
+                if (keys[slot] != key || values[slot] != expected) {
+                    return false;
+                }
+                delete(slot);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return size;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Slot holding the key, or the empty slot where it would go.
+         */
+        private int find(long key, long hash) {
+            int slot = (int) hash & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void insert(int slot, long key, long value) {
+            keys[slot] = key;
+            values[slot] = value;
+            // Keep the load factor at or below 1/2 so probe chains stay short
+            if (++size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+
+        /**
+         * Backward-shift deletion, as in CompactTicketStore.
+         */
+        private void delete(int slot) {
+            int gap = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & mask;
+                long key = keys[next];
+                if (key == 0) {
+                    break;
+                }
+                int home = (int) mix(key) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = key;
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = 0;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[capacity];
+            values = new long[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = (int) mix(oldKeys[i]) & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
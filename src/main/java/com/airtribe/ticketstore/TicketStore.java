@@ -0,0 +1,36 @@
+package com.airtribe.ticketstore;
+
+import com.airtribe.parkingticket.ParkingTicket;
+
+/**
+ * Holds a parking lot's active tickets, keyed by ticket ID.
+ * Implementations must be thread-safe, and remove must be atomic: at most
+ * one caller gets a given ticket back (ExitPanel claims tickets this way).
+ */
+public interface TicketStore {
+
+    void put(ParkingTicket ticket);
+
+    /**
+     * Stores a batch of tickets. Null entries are skipped.
+     */
+    default void putAll(ParkingTicket[] tickets) {
+        for (ParkingTicket ticket : tickets) {
+            if (ticket != null) {
+                put(ticket);
+            }
+        }
+    }
+
+    /**
+     * @return the active ticket with this ID, or null
+     */
+    ParkingTicket get(String ticketId);
+
+    /**
+     * Removes and returns the active ticket with this ID, or null if there is none.
+     */
+    ParkingTicket remove(String ticketId);
+
+    int size();
+}